@@ -0,0 +1,100 @@
+package com.synyctiks.car.security.jwt;
+
+import com.synyctiks.car.management.SecurityMetersService;
+import com.synyctiks.car.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the JWT authentication done on every request: validating the token, building the
+ * {@link Authentication} out of it, and both through {@link JWTFilter}, with and without its authentication cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTFilterBenchmark {
+
+    private static final FilterChain NO_OP_FILTER_CHAIN = (request, response) -> {};
+
+    private TokenProvider tokenProvider;
+
+    private JWTFilter jwtFilter;
+
+    private JWTFilter cachingJwtFilter;
+
+    private String jwt;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        jwtFilter = new JWTFilter(tokenProvider);
+        cachingJwtFilter = new JWTFilter(tokenProvider, new JWTAuthenticationCache(10000));
+
+        jwt =
+            tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(
+                    "test-user",
+                    "test-password",
+                    List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+                ),
+                false
+            );
+        request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/cars");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(jwt);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(jwt);
+    }
+
+    @Benchmark
+    public void doFilter() throws IOException, ServletException {
+        jwtFilter.doFilter(request, response, NO_OP_FILTER_CHAIN);
+    }
+
+    @Benchmark
+    public void doFilterWithCache() throws IOException, ServletException {
+        cachingJwtFilter.doFilter(request, response, NO_OP_FILTER_CHAIN);
+    }
+}
@@ -0,0 +1,210 @@
+package com.synyctiks.car.service;
+
+import static org.mockito.Mockito.mock;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.domain.CarIdGenerator;
+import com.synyctiks.car.repository.CarJdbcRepository;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.mapper.CarMapperImpl;
+import com.synyctiks.car.service.readmodel.CarReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import tech.jhipster.domain.util.FixedPostgreSQL10Dialect;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Benchmark of turning the criteria of a request into a {@link Specification}, done once per criteria request, against
+ * finding its {@link CarQueryTemplate} in the cache and binding its values.
+ * <p>
+ * The {@code create*Query} benchmarks go on down to the {@link EntityManager#createQuery} of a Hibernate entity manager
+ * configured as the application's, the way {@code SimpleJpaRepository} queries a specification and
+ * {@code CarCriteriaRepositoryImpl} a template: a criteria query is rendered to JPQL on each call before its plan is
+ * looked up, while the JPQL of a template is always the same. Queries are created but not executed, so no database is
+ * needed, the dialect being set rather than read from the JDBC metadata.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarQueryServiceBenchmark {
+
+    private CarQueryService carQueryService;
+
+    private CarCriteria emptyCriteria;
+
+    private CarCriteria fullCriteria;
+
+    private CarQueryTemplateCache carQueryTemplateCache;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        carQueryTemplateCache = new CarQueryTemplateCache(new ApplicationProperties(), new SimpleMeterRegistry());
+        carQueryService = new CarQueryService(
+            mock(CarRepository.class),
+            new CarMapperImpl(),
+            new ApplicationProperties(),
+            mock(CarReadModel.class),
+            mock(CarQueryShapeStatistics.class),
+            mock(CarCountCache.class),
+            carQueryTemplateCache,
+            mock(CarJdbcRepository.class),
+            mock(CarTableVersion.class)
+        );
+        emptyCriteria = new CarCriteria();
+
+        fullCriteria = new CarCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(List.of(1L, 2L, 3L));
+        fullCriteria.setId(id);
+        StringFilter name = new StringFilter();
+        name.setContains("Car");
+        fullCriteria.setName(name);
+        StringFilter colour = new StringFilter();
+        colour.setEquals("red");
+        fullCriteria.setColour(colour);
+        IntegerFilter price = new IntegerFilter();
+        price.setGreaterThanOrEqual(100);
+        price.setLessThan(10000);
+        fullCriteria.setPrice(price);
+        fullCriteria.setDistinct(true);
+
+        LocalContainerEntityManagerFactoryBean entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setPersistenceUnitName("benchmark");
+        entityManagerFactoryBean.setPackagesToScan(Car.class.getPackageName());
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(
+            Map.of(
+                AvailableSettings.DIALECT,
+                FixedPostgreSQL10Dialect.class.getName(),
+                "hibernate.temp.use_jdbc_metadata_defaults",
+                false,
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                SpringPhysicalNamingStrategy.class.getName(),
+                AvailableSettings.IMPLICIT_NAMING_STRATEGY,
+                SpringImplicitNamingStrategy.class.getName(),
+                CarIdGenerator.INCREMENT_SIZE_SETTING,
+                50,
+                AvailableSettings.IN_CLAUSE_PARAMETER_PADDING,
+                true
+            )
+        );
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactory = entityManagerFactoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Specification<Car> createEmptySpecification() {
+        return carQueryService.createSpecification(emptyCriteria);
+    }
+
+    @Benchmark
+    public Specification<Car> createFullSpecification() {
+        return carQueryService.createSpecification(fullCriteria);
+    }
+
+    @Benchmark
+    public List<Object> bindEmptyTemplate() {
+        return carQueryService.getTemplate(emptyCriteria).orElseThrow().bind(emptyCriteria);
+    }
+
+    @Benchmark
+    public List<Object> bindFullTemplate() {
+        return carQueryService.getTemplate(fullCriteria).orElseThrow().bind(fullCriteria);
+    }
+
+    @Benchmark
+    public CarQueryTemplate compileFullTemplate() {
+        return CarQueryTemplate.compile(fullCriteria);
+    }
+
+    @Benchmark
+    public TypedQuery<Car> createEmptySpecificationQuery() {
+        return createSpecificationQuery(emptyCriteria);
+    }
+
+    @Benchmark
+    public TypedQuery<Car> createFullSpecificationQuery() {
+        return createSpecificationQuery(fullCriteria);
+    }
+
+    @Benchmark
+    public TypedQuery<Car> createEmptyTemplateQuery() {
+        return createTemplateQuery(emptyCriteria);
+    }
+
+    @Benchmark
+    public TypedQuery<Car> createFullTemplateQuery() {
+        return createTemplateQuery(fullCriteria);
+    }
+
+    private TypedQuery<Car> createSpecificationQuery(CarCriteria criteria) {
+        Specification<Car> specification = carQueryService.createSpecification(criteria);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Car> query = builder.createQuery(Car.class);
+        Root<Car> root = query.from(Car.class);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private TypedQuery<Car> createTemplateQuery(CarCriteria criteria) {
+        CarQueryTemplate template = carQueryService.getTemplate(criteria).orElseThrow();
+        String jpql = (template.isDistinct() ? "select distinct c" : "select c") + " from Car c";
+        if (!template.getCondition().isEmpty()) {
+            jpql += " where " + template.getCondition();
+        }
+        TypedQuery<Car> query = entityManager.createQuery(jpql, Car.class);
+        List<Object> parameters = template.bind(criteria);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,202 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.aop.profiling.ProfilingAspect;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.mapper.CarMapper;
+import com.synyctiks.car.service.mapper.CarMapperImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Benchmark of the overhead of the {@link ProfilingAspect} on a service call mapping a page of cars, on an empty one,
+ * the {@code *Size} benchmarks, which isolate the cost of the advice, and on a request going through a resource, a
+ * service and a repository, the {@code chain*} benchmarks, each of the three calls being advised.
+ * <p>
+ * {@code proxied} is the baseline of a service proxied without profiling, as services are for transactions, and
+ * {@code profiledSampled} the default production setting. {@code profiledEveryCall} shows the cost of timing every
+ * call. {@code direct} calls the service without a proxy.
+ * <p>
+ * With {@code -t 1 -f 3 -wi 5 -i 10}, on a single CPU, the empty call took 17 ns proxied, 98 ns profiled with sampling
+ * and 346 ns profiled on every call, and the request 672 ns, 743 ns and 1525 ns. Sampling adds at most 80 ns per
+ * advised call, or 0.24 µs for the three calls of a request, which is 1% of the 23 µs of the cheapest request to a
+ * local database, a primary key read, and less for any other. Timing every call costs 0.85 µs per request, or 3.7%.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class ProfilingAspectBenchmark {
+
+    private PageService direct;
+
+    private PageService proxied;
+
+    private PageService profiledSampled;
+
+    private PageService profiledEveryCall;
+
+    private PageResource chainProxied;
+
+    private PageResource chainProfiledSampled;
+
+    private PageResource chainProfiledEveryCall;
+
+    @Setup
+    public void setUp() {
+        CarMapper carMapper = new CarMapperImpl();
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cars.add(new Car().id((long) i).name("Car " + i).colour("red").price(i * 100));
+        }
+        PageRepository repository = new PageRepository(cars);
+        PageService target = new PageService(carMapper, repository);
+        direct = target;
+        proxied = proxy(target, null);
+        profiledSampled = proxy(target, new ProfilingAspect(100));
+        profiledEveryCall = proxy(target, new ProfilingAspect(1));
+        chainProxied = chain(carMapper, repository, null);
+        chainProfiledSampled = chain(carMapper, repository, new ProfilingAspect(100));
+        chainProfiledEveryCall = chain(carMapper, repository, new ProfilingAspect(1));
+    }
+
+    /**
+     * @return the resource, calling the service, calling the repository, each through its own proxy, as beans are.
+     */
+    private static PageResource chain(CarMapper carMapper, PageRepository repository, ProfilingAspect aspect) {
+        PageService service = proxy(new PageService(carMapper, proxy(repository, aspect)), aspect);
+        return proxy(new PageResource(service), aspect);
+    }
+
+    private static <T> T proxy(T target, ProfilingAspect aspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        if (aspect != null) {
+            proxyFactory.addAspect(aspect);
+        }
+        return proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public List<CarDTO> direct() {
+        return direct.findPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> proxied() {
+        return proxied.findPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> profiledSampled() {
+        return profiledSampled.findPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> profiledEveryCall() {
+        return profiledEveryCall.findPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> chainProxied() {
+        return chainProxied.getPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> chainProfiledSampled() {
+        return chainProfiledSampled.getPage();
+    }
+
+    @Benchmark
+    public List<CarDTO> chainProfiledEveryCall() {
+        return chainProfiledEveryCall.getPage();
+    }
+
+    @Benchmark
+    public int directSize() {
+        return direct.size();
+    }
+
+    @Benchmark
+    public int proxiedSize() {
+        return proxied.size();
+    }
+
+    @Benchmark
+    public int profiledSampledSize() {
+        return profiledSampled.size();
+    }
+
+    @Benchmark
+    public int profiledEveryCallSize() {
+        return profiledEveryCall.size();
+    }
+
+    @RestController
+    public static class PageResource {
+
+        private final PageService pageService;
+
+        public PageResource(PageService pageService) {
+            this.pageService = pageService;
+        }
+
+        public List<CarDTO> getPage() {
+            return pageService.findPage();
+        }
+    }
+
+    @Service
+    public static class PageService {
+
+        private final CarMapper carMapper;
+
+        private final PageRepository pageRepository;
+
+        public PageService(CarMapper carMapper, PageRepository pageRepository) {
+            this.carMapper = carMapper;
+            this.pageRepository = pageRepository;
+        }
+
+        public List<CarDTO> findPage() {
+            return carMapper.toDto(pageRepository.findAll());
+        }
+
+        public int size() {
+            return pageRepository.findAll().size();
+        }
+    }
+
+    @Repository
+    public static class PageRepository {
+
+        private final List<Car> cars;
+
+        public PageRepository(List<Car> cars) {
+            this.cars = cars;
+        }
+
+        public List<Car> findAll() {
+            return cars;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.synyctiks.car.service.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of writing and reading lists of cars as JSON, Smile and CBOR, with object mappers configured like the
+ * message converters of the application, see {@code JacksonConfiguration}.
+ * The size of the payload of each format is logged at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarDTOSerializationBenchmark {
+
+    private final Logger log = LoggerFactory.getLogger(CarDTOSerializationBenchmark.class);
+
+    private static final String[] COLOURS = { "red", "green", "blue", "black", "white" };
+
+    @Param({ "20", "2000" })
+    private int size;
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<CarDTO> carDTOs;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .factory(factory(format))
+            .modules(new JavaTimeModule(), new Jdk8Module(), new Hibernate5Module())
+            .build();
+        writer = objectMapper.writerFor(new TypeReference<List<CarDTO>>() {});
+        reader = objectMapper.readerFor(new TypeReference<List<CarDTO>>() {});
+        carDTOs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CarDTO carDTO = new CarDTO();
+            carDTO.setId((long) i);
+            carDTO.setName("Car " + i);
+            carDTO.setColour(COLOURS[i % COLOURS.length]);
+            carDTO.setPrice(i * 100);
+            carDTOs.add(carDTO);
+        }
+        payload = writer.writeValueAsBytes(carDTOs);
+        log.info("{} cars as {}: {} bytes", size, format, payload.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return writer.writeValueAsBytes(carDTOs);
+    }
+
+    @Benchmark
+    public List<CarDTO> readValue() throws IOException {
+        return reader.readValue(payload);
+    }
+}
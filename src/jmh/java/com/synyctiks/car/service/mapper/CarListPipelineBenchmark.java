@@ -0,0 +1,118 @@
+package com.synyctiks.car.service.mapper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.management.RequestPhases;
+import com.synyctiks.car.management.RequestPhasesAspect;
+import com.synyctiks.car.service.dto.CarDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Benchmark of the work done for each list of cars returned by {@code GET /api/cars} once the cars are loaded, within a
+ * recording of the {@link RequestPhases}: mapping them to DTOs, either into a new list or as they are written, see
+ * {@link MappedList}, and writing them as JSON, with or without the {@link BlackbirdModule}.
+ * <p>
+ * The mapper is proxied with the {@link RequestPhasesAspect}, as the {@link CarMapper} bean is. Mapping as they are
+ * written goes through the proxy for each car in {@code mapWhileWritingProxied}, and through the mapper behind it in
+ * {@code mapWhileWriting}, as {@code CarQueryService} does.
+ * <p>
+ * Run it with {@code -prof gc}: the {@code gc.alloc.rate.norm} of each benchmark, divided by {@code size}, is the
+ * number of bytes allocated per car. For 2000 cars, it was about 36 bytes for {@code mapThenWrite}, 32 for
+ * {@code mapWhileWriting} and 280 for {@code mapWhileWritingProxied}, with or without Blackbird.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarListPipelineBenchmark {
+
+    @Param({ "20", "2000" })
+    private int size;
+
+    @Param({ "false", "true" })
+    private boolean blackbird;
+
+    private CarMapper carMapper;
+
+    private CarMapper proxiedCarMapper;
+
+    private ObjectWriter writer;
+
+    private List<Car> cars;
+
+    private final OutputStream out = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+    @Setup
+    public void setUp() {
+        carMapper = new CarMapperImpl();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(carMapper);
+        proxyFactory.addAspect(new RequestPhasesAspect());
+        proxiedCarMapper = proxyFactory.getProxy();
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modules(new JavaTimeModule(), new Jdk8Module(), new Hibernate5Module(), new BlackbirdModule());
+        } else {
+            builder.modules(new JavaTimeModule(), new Jdk8Module(), new Hibernate5Module());
+        }
+        writer = builder.build().writerFor(new TypeReference<List<CarDTO>>() {});
+        cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car().id((long) i).name("Car " + i).colour("red").price(i * 100));
+        }
+    }
+
+    /**
+     * Record the phases of the benchmark thread, as those of a request, for the aspect to time the mapper.
+     */
+    @Setup(Level.Iteration)
+    public void startRecording() {
+        RequestPhases.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopRecording() {
+        RequestPhases.stop();
+    }
+
+    @Benchmark
+    public void mapThenWrite() throws IOException {
+        writer.writeValue(out, proxiedCarMapper.toDto(cars));
+    }
+
+    @Benchmark
+    public void mapWhileWritingProxied() throws IOException {
+        writer.writeValue(out, MappedList.of(cars, proxiedCarMapper::toDto));
+    }
+
+    @Benchmark
+    public void mapWhileWriting() throws IOException {
+        writer.writeValue(out, MappedList.of(cars, carMapper::toDto));
+    }
+}
@@ -0,0 +1,59 @@
+package com.synyctiks.car.service.mapper;
+
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.service.dto.CarDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of mapping lists of cars, as done for each page of cars read or written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarMapperBenchmark {
+
+    @Param({ "20", "2000" })
+    private int size;
+
+    private CarMapper carMapper;
+
+    private List<Car> cars;
+
+    private List<CarDTO> carDTOs;
+
+    @Setup
+    public void setUp() {
+        carMapper = new CarMapperImpl();
+        cars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cars.add(new Car().id((long) i).name("Car " + i).colour("red").price(i * 100));
+        }
+        carDTOs = carMapper.toDto(cars);
+    }
+
+    @Benchmark
+    public List<CarDTO> toDto() {
+        return carMapper.toDto(cars);
+    }
+
+    @Benchmark
+    public List<Car> toEntity() {
+        return carMapper.toEntity(carDTOs);
+    }
+}
@@ -0,0 +1,86 @@
+package com.synyctiks.car.aop.profiling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free statistics of the sampled calls to a method: counts, total and maximum time, and a histogram of the
+ * durations with power-of-two buckets, which bounds its memory and error to a factor of two.
+ */
+public class MethodProfile {
+
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final String method;
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    public MethodProfile(String method) {
+        this.method = method;
+    }
+
+    public void record(long nanos, boolean failed) {
+        long duration = Math.max(0, nanos);
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(duration);
+        maxNanos.accumulate(duration);
+        histogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(duration));
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Estimate a percentile of the durations of the calls, as the upper bound of the bucket holding it.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 1}.
+     * @return the estimated percentile, in nanoseconds, bounded by the maximum duration.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                long upperBound = i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, getMaxNanos());
+            }
+        }
+        return 0;
+    }
+}
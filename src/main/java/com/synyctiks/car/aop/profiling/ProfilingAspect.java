@@ -0,0 +1,104 @@
+package com.synyctiks.car.aop.profiling;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Aspect profiling the execution of service, repository and Web REST Spring components, the same as
+ * {@link com.synyctiks.car.aop.logging.LoggingAspect}, but cheap enough to run in production.
+ * <p>
+ * Only one call in {@code sampleRate} is timed, the other ones go straight through, and the statistics of the sampled
+ * calls are kept per method in a lock-free {@link MethodProfile}. Call counts are therefore estimates, of the sampled
+ * counts times the sample rate.
+ */
+@Aspect
+public class ProfilingAspect {
+
+    private final int sampleRate;
+
+    private final ConcurrentMap<String, MethodProfile> profiles = new ConcurrentHashMap<>();
+
+    public ProfilingAspect(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints.
+     */
+    @Pointcut(
+        "within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)"
+    )
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut(
+        "within(com.synyctiks.car.repository..*)" + " || within(com.synyctiks.car.service..*)" + " || within(com.synyctiks.car.web.rest..*)"
+    )
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times one call in {@code sampleRate}.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable throws the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object profileAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return joinPoint.proceed();
+        }
+        boolean failed = true;
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            profile(joinPoint.getSignature()).record(nanos, failed);
+        }
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @param limit the maximum number of methods.
+     * @param comparator the order of the methods.
+     * @return the profiles of the first methods in the given order.
+     */
+    public List<MethodProfile> getProfiles(int limit, Comparator<MethodProfile> comparator) {
+        return profiles.values().stream().sorted(comparator).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Forget the profiles recorded so far.
+     */
+    public void reset() {
+        profiles.clear();
+    }
+
+    private MethodProfile profile(Signature signature) {
+        String method = signature.getDeclaringTypeName() + "." + signature.getName();
+        return profiles.computeIfAbsent(method, MethodProfile::new);
+    }
+}
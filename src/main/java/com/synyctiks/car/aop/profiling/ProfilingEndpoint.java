@@ -0,0 +1,157 @@
+package com.synyctiks.car.aop.profiling;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Management endpoint listing the slowest methods profiled by the {@link ProfilingAspect}, at
+ * {@code /management/profiling}.
+ * <p>
+ * Methods are ordered by {@code total} time by default, estimated from the sampled calls, or by {@code p99},
+ * {@code max} or {@code mean} time with the {@code orderBy} parameter. A {@code DELETE} resets the profiles.
+ */
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final ProfilingAspect profilingAspect;
+
+    public ProfilingEndpoint(ProfilingAspect profilingAspect) {
+        this.profilingAspect = profilingAspect;
+    }
+
+    @ReadOperation
+    public ProfilingDescriptor profiles(@Nullable Integer top, @Nullable String orderBy) {
+        int sampleRate = profilingAspect.getSampleRate();
+        Comparator<MethodProfile> order = Comparator.comparingLong(ordering(orderBy, sampleRate)).reversed();
+        List<MethodProfileDescriptor> methods = profilingAspect
+            .getProfiles(top == null ? DEFAULT_TOP : Math.max(0, top), order)
+            .stream()
+            .map(profile -> new MethodProfileDescriptor(profile, sampleRate))
+            .collect(Collectors.toList());
+        return new ProfilingDescriptor(sampleRate, methods);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profilingAspect.reset();
+    }
+
+    private static ToLongFunction<MethodProfile> ordering(@Nullable String orderBy, int sampleRate) {
+        switch (orderBy == null ? "total" : orderBy.toLowerCase(Locale.ROOT)) {
+            case "p99":
+                return profile -> profile.getPercentileNanos(0.99);
+            case "max":
+                return MethodProfile::getMaxNanos;
+            case "mean":
+                return profile -> profile.getTotalNanos() / Math.max(1, profile.getCalls());
+            default:
+                return profile -> profile.getTotalNanos() * sampleRate;
+        }
+    }
+
+    public static class ProfilingDescriptor {
+
+        private final int sampleRate;
+
+        private final List<MethodProfileDescriptor> methods;
+
+        public ProfilingDescriptor(int sampleRate, List<MethodProfileDescriptor> methods) {
+            this.sampleRate = sampleRate;
+            this.methods = methods;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public List<MethodProfileDescriptor> getMethods() {
+            return methods;
+        }
+    }
+
+    /**
+     * The statistics of a method, with times in milliseconds.
+     */
+    public static class MethodProfileDescriptor {
+
+        private final String method;
+
+        private final long sampledCalls;
+
+        private final long estimatedCalls;
+
+        private final long failures;
+
+        private final double estimatedTotal;
+
+        private final double mean;
+
+        private final double p50;
+
+        private final double p99;
+
+        private final double max;
+
+        public MethodProfileDescriptor(MethodProfile profile, int sampleRate) {
+            this.method = profile.getMethod();
+            this.sampledCalls = profile.getCalls();
+            this.estimatedCalls = sampledCalls * sampleRate;
+            this.failures = profile.getFailures();
+            this.estimatedTotal = toMillis(profile.getTotalNanos() * sampleRate);
+            this.mean = sampledCalls == 0 ? 0 : toMillis(profile.getTotalNanos()) / sampledCalls;
+            this.p50 = toMillis(profile.getPercentileNanos(0.5));
+            this.p99 = toMillis(profile.getPercentileNanos(0.99));
+            this.max = toMillis(profile.getMaxNanos());
+        }
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getSampledCalls() {
+            return sampledCalls;
+        }
+
+        public long getEstimatedCalls() {
+            return estimatedCalls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getEstimatedTotal() {
+            return estimatedTotal;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+}
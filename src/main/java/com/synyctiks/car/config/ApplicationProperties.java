@@ -1,5 +1,7 @@
 package com.synyctiks.car.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +12,422 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Query query = new Query();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Jwt jwt = new Jwt();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Profiling profiling = new Profiling();
+
+    private final ReadModel readModel = new ReadModel();
+
+    private final CountCache countCache = new CountCache();
+
+    private final Facets facets = new Facets();
+
+    private final Datasource datasource = new Datasource();
+
+    private final ApproximateCount approximateCount = new ApproximateCount();
+
     // jhipster-needle-application-properties-property
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Profiling getProfiling() {
+        return profiling;
+    }
+
+    public ReadModel getReadModel() {
+        return readModel;
+    }
+
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    public Facets getFacets() {
+        return facets;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public ApproximateCount getApproximateCount() {
+        return approximateCount;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Query {
+
+        /**
+         * Number of rows fetched per round-trip when streaming query results through a database cursor.
+         */
+        private int streamFetchSize = 500;
+
+        /**
+         * Maximum number of query shapes recorded, see {@code /management/carqueryshapes}, {@code 0} to disable the statistics.
+         */
+        private int shapeStatisticsSize = 200;
+
+        /**
+         * Maximum number of compiled criteria queries cached, see {@code CarQueryTemplateCache}, {@code 0} to build every query
+         * from its criteria.
+         */
+        private int templateCacheSize = 256;
+
+        /**
+         * How lists and pages of cars are read from the database: as entities, or as rows mapped straight to DTOs, which needs
+         * the templates.
+         */
+        private Engine engine = Engine.JPA;
+
+        public int getStreamFetchSize() {
+            return streamFetchSize;
+        }
+
+        public void setStreamFetchSize(int streamFetchSize) {
+            this.streamFetchSize = streamFetchSize;
+        }
+
+        public int getShapeStatisticsSize() {
+            return shapeStatisticsSize;
+        }
+
+        public void setShapeStatisticsSize(int shapeStatisticsSize) {
+            this.shapeStatisticsSize = shapeStatisticsSize;
+        }
+
+        public int getTemplateCacheSize() {
+            return templateCacheSize;
+        }
+
+        public void setTemplateCacheSize(int templateCacheSize) {
+            this.templateCacheSize = templateCacheSize;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        public void setEngine(Engine engine) {
+            this.engine = engine;
+        }
+
+        public enum Engine {
+            JPA,
+            JDBC,
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of items processed per transaction by bulk operations, best kept a multiple of {@code hibernate.jdbc.batch_size}.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Jwt {
+
+        /**
+         * Maximum number of authentications of valid JWTs cached until the tokens expire, {@code 0} to disable the cache.
+         */
+        private int authenticationCacheSize = 10000;
+
+        public int getAuthenticationCacheSize() {
+            return authenticationCacheSize;
+        }
+
+        public void setAuthenticationCacheSize(int authenticationCacheSize) {
+            this.authenticationCacheSize = authenticationCacheSize;
+        }
+    }
+
+    public static class Metrics {
+
+        /**
+         * Whether to break the requests to the car endpoints into phases, see {@code RequestPhasesConfiguration}.
+         */
+        private boolean requestPhases = true;
+
+        public boolean isRequestPhases() {
+            return requestPhases;
+        }
+
+        public void setRequestPhases(boolean requestPhases) {
+            this.requestPhases = requestPhases;
+        }
+    }
+
+    public static class Profiling {
+
+        /**
+         * Whether to profile services, repositories and REST controllers, see {@code /management/profiling}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * One call in {@code sampleRate} is timed, {@code 1} to time every call.
+         */
+        private int sampleRate = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class ReadModel {
+
+        /**
+         * Whether to answer criteria queries and counts on cars from an in-memory columnar copy of the table, see {@code CarReadModel}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay after which the copy is loaded again when it failed to be loaded or kept in sync.
+         */
+        private int reloadDelaySeconds = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getReloadDelaySeconds() {
+            return reloadDelaySeconds;
+        }
+
+        public void setReloadDelaySeconds(int reloadDelaySeconds) {
+            this.reloadDelaySeconds = reloadDelaySeconds;
+        }
+    }
+
+    public static class CountCache {
+
+        /**
+         * Whether to cache the numbers of cars matching criteria until a car is written, see {@code CarCountCache}.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time after which a cached count expires, even if no car was written.
+         */
+        private int timeToLiveSeconds = 3600;
+
+        /**
+         * Maximum number of counts cached per instance.
+         */
+        private int maxSize = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Facets {
+
+        /**
+         * Bounds of the price buckets of {@code /api/cars/facets}, when the request has none.
+         */
+        private List<Integer> priceBuckets = new ArrayList<>(List.of(5000, 10000, 20000, 50000));
+
+        /**
+         * Maximum number of bounds of price buckets a request may have.
+         */
+        private int maxPriceBuckets = 50;
+
+        public List<Integer> getPriceBuckets() {
+            return priceBuckets;
+        }
+
+        public void setPriceBuckets(List<Integer> priceBuckets) {
+            this.priceBuckets = priceBuckets;
+        }
+
+        public int getMaxPriceBuckets() {
+            return maxPriceBuckets;
+        }
+
+        public void setMaxPriceBuckets(int maxPriceBuckets) {
+            this.maxPriceBuckets = maxPriceBuckets;
+        }
+    }
+
+    public static class Datasource {
+
+        /**
+         * Read replicas the read-only transactions are routed to, in turn, none to route every transaction to {@code spring.datasource}.
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * Time during which the read-only transactions of a user still go to {@code spring.datasource} after they commit a write, for
+         * them to read their own writes, {@code 0} to disable.
+         */
+        private int stickySeconds = 5;
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public int getStickySeconds() {
+            return stickySeconds;
+        }
+
+        public void setStickySeconds(int stickySeconds) {
+            this.stickySeconds = stickySeconds;
+        }
+
+        public static class Replica {
+
+            /**
+             * JDBC URL of the replica.
+             */
+            private String url;
+
+            /**
+             * Login username of the replica, that of {@code spring.datasource} by default.
+             */
+            private String username;
+
+            /**
+             * Login password of the replica, that of {@code spring.datasource} by default.
+             */
+            private String password;
+
+            /**
+             * Maximum number of connections to the replica, that of {@code spring.datasource.hikari} by default.
+             */
+            private Integer maximumPoolSize;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public Integer getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(Integer maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+
+    public static class ApproximateCount {
+
+        /**
+         * Number of cars under which {@code /api/cars/count?approximate=true} counts them exactly rather than returning its estimate.
+         */
+        private long exactThreshold = 10000;
+
+        /**
+         * Percentage of the pages of the car table sampled to estimate the number of cars matching criteria.
+         */
+        private double samplePercent = 1;
+
+        public long getExactThreshold() {
+            return exactThreshold;
+        }
+
+        public void setExactThreshold(long exactThreshold) {
+            this.exactThreshold = exactThreshold;
+        }
+
+        public double getSamplePercent() {
+            return samplePercent;
+        }
+
+        public void setSamplePercent(double samplePercent) {
+            this.samplePercent = samplePercent;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
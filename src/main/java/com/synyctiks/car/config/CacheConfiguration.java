@@ -3,10 +3,17 @@ package com.synyctiks.car.config;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.service.CarCountCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
 import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
@@ -64,7 +71,7 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("carapp");
         if (hazelCastInstance != null) {
@@ -106,9 +113,43 @@ public class CacheConfiguration {
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeCarCountMapConfig(applicationProperties));
+        config.addMapConfig(initializeLastWritesMapConfig(applicationProperties));
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    /**
+     * Makes the Hibernate second-level cache use the Hazelcast instance configured above.
+     * <p>
+     * Depending on the {@link HazelcastInstance} bean guarantees it is started before the entity manager factory, so the
+     * region factory finds it by name instead of booting a second, unclustered member.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hazelcastHibernatePropertiesCustomizer(HazelcastInstance hazelcastInstance) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.hazelcast.instance_name", hazelcastInstance.getName());
+            hibernateProperties.put("hibernate.cache.hazelcast.shutdown_on_session_factory_close", false);
+        };
+    }
+
+    /**
+     * Exposes hit, miss, put and eviction counts of the {@link Car} entity cache region. Hazelcast does not count the
+     * entries a map evicts by itself, so evictions are the entries removed by Hibernate when cars are updated or deleted.
+     */
+    @Bean
+    public MeterBinder carEntityCacheMeterBinder(HazelcastInstance hazelcastInstance) {
+        IMap<Object, Object> region = hazelcastInstance.getMap(Car.class.getName());
+        return registry -> {
+            HazelcastCacheMetrics.monitor(registry, region);
+            FunctionCounter
+                .builder("cache.evictions", region, map -> map.getLocalMapStats().getRemoveOperationCount())
+                .tags("cache", region.getName())
+                .description("The number of times the cache was evicted.")
+                .register(registry);
+        };
+    }
+
     private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig("default");
 
@@ -145,6 +186,22 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    private MapConfig initializeCarCountMapConfig(ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(CarCountCache.MAP_NAME);
+        mapConfig.setTimeToLiveSeconds(applicationProperties.getCountCache().getTimeToLiveSeconds());
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        mapConfig.getEvictionConfig().setSize(applicationProperties.getCountCache().getMaxSize());
+        return mapConfig;
+    }
+
+    private MapConfig initializeLastWritesMapConfig(ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(DatabaseReplicaConfiguration.LAST_WRITES_MAP_NAME);
+        // The writes only matter while they keep their users on the primary
+        mapConfig.setTimeToLiveSeconds(Math.max(applicationProperties.getDatasource().getStickySeconds(), 1));
+        return mapConfig;
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
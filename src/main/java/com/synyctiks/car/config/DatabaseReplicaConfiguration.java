@@ -0,0 +1,116 @@
+package com.synyctiks.car.config;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Sends the read-only transactions to the read replicas of {@code application.datasource.replicas}, when there are any.
+ * <p>
+ * The primary is the pool of {@code spring.datasource}, and each replica gets a pool with the same settings, but for
+ * its URL, credentials and size. Each pool has its own {@code hikaricp.*} metrics, tagged with its name, and its own
+ * health indicator under {@code db.routingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource", name = "replicas[0].url")
+public class DatabaseReplicaConfiguration {
+
+    static final String LAST_WRITES_MAP_NAME = "datasource-last-writes";
+
+    private final Logger log = LoggerFactory.getLogger(DatabaseReplicaConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+        HikariDataSource primaryDataSource,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<HazelcastInstance> hazelcastInstance
+    ) {
+        ApplicationProperties.Datasource properties = applicationProperties.getDatasource();
+        List<ApplicationProperties.Datasource.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicaDataSources.put(name, replicaDataSource(primaryDataSource, replicas.get(i), name));
+        }
+        log.info("Routing read-only transactions to {} replicas", replicaDataSources.size());
+        HazelcastInstance hazelcast = hazelcastInstance.getIfAvailable();
+        ConcurrentMap<String, Long> lastWrites = hazelcast != null ? hazelcast.getMap(LAST_WRITES_MAP_NAME) : new ConcurrentHashMap<>();
+        return new ReplicaRoutingDataSource(
+            primaryDataSource,
+            replicaDataSources,
+            lastWrites,
+            Duration.ofSeconds(properties.getStickySeconds()),
+            Clock.systemUTC()
+        );
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Exposes the {@code hikaricp.*} metrics of the replica pools, as Spring Boot does for the pools that are beans.
+     */
+    @Bean
+    public MeterBinder replicaPoolsMeterBinder(ReplicaRoutingDataSource routingDataSource) {
+        return registry -> {
+            for (DataSource replica : routingDataSource.getReplicas()) {
+                HikariDataSource pool = (HikariDataSource) replica;
+                if (pool.getMetricRegistry() == null && pool.getMetricsTrackerFactory() == null) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+        };
+    }
+
+    private HikariDataSource replicaDataSource(HikariDataSource primary, ApplicationProperties.Datasource.Replica replica, String name) {
+        // Not started until its first connection, as the primary
+        HikariDataSource dataSource = new HikariDataSource();
+        primary.copyStateTo(dataSource);
+        dataSource.setPoolName(primary.getPoolName() + "-" + name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            dataSource.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            dataSource.setPassword(replica.getPassword());
+        }
+        if (replica.getMaximumPoolSize() != null) {
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        }
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
@@ -1,6 +1,9 @@
 package com.synyctiks.car.config;
 
 import com.synyctiks.car.aop.logging.LoggingAspect;
+import com.synyctiks.car.aop.profiling.ProfilingAspect;
+import com.synyctiks.car.aop.profiling.ProfilingEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +17,16 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.profiling", name = "enabled", havingValue = "true")
+    public ProfilingAspect profilingAspect(ApplicationProperties applicationProperties) {
+        return new ProfilingAspect(applicationProperties.getProfiling().getSampleRate());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.profiling", name = "enabled", havingValue = "true")
+    public ProfilingEndpoint profilingEndpoint(ProfilingAspect profilingAspect) {
+        return new ProfilingEndpoint(profilingAspect);
+    }
 }
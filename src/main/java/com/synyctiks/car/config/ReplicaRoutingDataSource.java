@@ -0,0 +1,127 @@
+package com.synyctiks.car.config;
+
+import com.synyctiks.car.repository.PrimaryReads;
+import com.synyctiks.car.security.SecurityUtils;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the connections of read-only transactions to the replicas, in turn, and every other connection to the primary.
+ * <p>
+ * A transaction is only known to be read-only once it has begun, so this data source is wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which fetches the connection on the first statement.
+ * <p>
+ * Once a user commits a write, their read-only transactions keep going to the primary for a while, so that they read
+ * their own writes despite the replication lag. The time of the last write of each user is kept in a map shared by the
+ * instances of the service.
+ * <p>
+ * Reads marked by {@link PrimaryReads} go to the primary as well.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final List<String> replicaKeys;
+
+    private final List<DataSource> replicas;
+
+    private final ConcurrentMap<String, Long> lastWrites;
+
+    private final long stickyMillis;
+
+    private final Clock clock;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary the data source of the primary.
+     * @param replicas the data sources of the replicas, by name.
+     * @param lastWrites the times of the last writes of the users, by login.
+     * @param stickiness the time during which a user reads from the primary after a write, zero to disable.
+     * @param clock the clock the writes are timed with.
+     */
+    ReplicaRoutingDataSource(
+        DataSource primary,
+        Map<String, DataSource> replicas,
+        ConcurrentMap<String, Long> lastWrites,
+        Duration stickiness,
+        Clock clock
+    ) {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.putAll(replicas);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.replicas = new ArrayList<>(replicas.values());
+        this.lastWrites = lastWrites;
+        this.stickyMillis = stickiness.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String login = stickyMillis > 0 ? SecurityUtils.getCurrentUserLogin().orElse(null) : null;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (login != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            lastWrites.put(login, clock.millis());
+                        }
+                    }
+                );
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || PrimaryReads.isRequired() || (login != null && wroteRecently(login))) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private boolean wroteRecently(String login) {
+        Long lastWrite = lastWrites.get(login);
+        return lastWrite != null && clock.millis() - lastWrite < stickyMillis;
+    }
+
+    /**
+     * @return the data sources of the replicas.
+     */
+    List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Close the pools of the replicas, the primary being a bean of its own.
+     */
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica).close();
+                } catch (Exception e) {
+                    log.warn("Could not close a replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.synyctiks.car.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synyctiks.car.management.RequestPhasesAspect;
+import com.synyctiks.car.management.RequestPhasesInterceptor;
+import com.synyctiks.car.management.RequestPhasesJackson2HttpMessageConverter;
+import com.synyctiks.car.management.RequestPhasesMetersService;
+import com.synyctiks.car.management.RequestPhasesSessionEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Breaks the requests to the car endpoints into phases (specification, JDBC, hydration, mapping and serialization),
+ * exported to the metrics endpoints as {@code carapp.request.phase} and {@code carapp.request.statements}.
+ * <p>
+ * Enabled unless {@code application.metrics.request-phases} is {@code false}.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+@ConditionalOnProperty(prefix = "application.metrics", name = "request-phases", havingValue = "true", matchIfMissing = true)
+public class RequestPhasesConfiguration implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestPhasesConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public RequestPhasesMetersService requestPhasesMetersService() {
+        return new RequestPhasesMetersService(meterRegistry);
+    }
+
+    @Bean
+    public RequestPhasesAspect requestPhasesAspect() {
+        return new RequestPhasesAspect();
+    }
+
+    @Bean
+    public RequestPhasesJackson2HttpMessageConverter requestPhasesJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new RequestPhasesJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestPhasesHibernatePropertiesCustomizer() {
+        return hibernateProperties ->
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestPhasesSessionEventListener.class.getName());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestPhasesInterceptor(requestPhasesMetersService())).addPathPatterns("/api/cars", "/api/cars/**");
+    }
+}
@@ -2,20 +2,34 @@ package com.synyctiks.car.domain;
 
 import java.io.Serializable;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Car.
  */
 @Entity
 @Table(name = "car")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Car implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Reserved from {@code car_sequence_generator} in blocks, see {@link CarIdGenerator}. The optimizer handing out the
+     * ids of a block is set by {@code hibernate.id.optimizer.pooled.preferred}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carSequenceGenerator")
+    @GenericGenerator(
+        name = "carSequenceGenerator",
+        strategy = "com.synyctiks.car.domain.CarIdGenerator",
+        parameters = { @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "car_sequence_generator") }
+    )
     @Column(name = "id")
     private Long id;
 
@@ -28,6 +42,13 @@ public class Car implements Serializable {
     @Column(name = "price")
     private Integer price;
 
+    /**
+     * Incremented by Hibernate on each update, which fails if the row was updated since the car was read.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -82,6 +103,14 @@ public class Car implements Serializable {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -109,6 +138,7 @@ public class Car implements Serializable {
             ", name='" + getName() + "'" +
             ", colour='" + getColour() + "'" +
             ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
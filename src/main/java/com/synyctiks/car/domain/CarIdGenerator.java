@@ -0,0 +1,36 @@
+package com.synyctiks.car.domain;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generator of car ids, reserving them from {@code car_sequence_generator} in blocks whose size is the
+ * {@value #INCREMENT_SIZE_SETTING} setting, so that each node only calls the sequence once per block.
+ * <p>
+ * The increment of the sequence must be the same as the block size: the Liquibase changelog creating the sequence
+ * takes it from the same setting, and Hibernate fails at startup if they differ, see
+ * {@code hibernate.id.sequence.increment_size_mismatch_strategy}. Once the sequence is created, changing the setting
+ * takes a new changeset altering the increment of the sequence, see {@code 20261017100001_added_sequence_Car.xml}.
+ */
+public class CarIdGenerator extends SequenceStyleGenerator {
+
+    public static final String INCREMENT_SIZE_SETTING = "hibernate.id.car.increment_size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Integer incrementSize = ConfigurationHelper.getInteger(
+            INCREMENT_SIZE_SETTING,
+            serviceRegistry.getService(ConfigurationService.class).getSettings()
+        );
+        if (incrementSize == null) {
+            throw new MappingException("The " + INCREMENT_SIZE_SETTING + " setting is required to generate car ids");
+        }
+        params.setProperty(INCREMENT_PARAM, incrementSize.toString());
+        super.configure(type, params, serviceRegistry);
+    }
+}
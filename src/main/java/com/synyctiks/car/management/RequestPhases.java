@@ -0,0 +1,129 @@
+package com.synyctiks.car.management;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread recording of the time spent in each phase of the request being handled, and of the number of SQL
+ * statements it executes.
+ * <p>
+ * A recording is started and stopped around a request by {@link RequestPhasesInterceptor}. Outside of a recording,
+ * for instance in background tasks, nothing is recorded and the methods of this class cost a thread-local lookup.
+ */
+public final class RequestPhases {
+
+    /**
+     * The phases of a request, each exported as a value of the {@code phase} tag.
+     */
+    public enum Phase {
+        /** Building the JPA specification out of the criteria of the request. */
+        SPECIFICATION,
+        /** Executing SQL statements, as timed by the JDBC driver calls. */
+        JDBC,
+        /** Time spent in repositories outside of JDBC, mostly building queries and hydrating entities. */
+        HYDRATION,
+        /** Mapping entities from and to DTOs, but for the lists of DTOs mapped while they are written. */
+        MAPPING,
+        /** Writing the response body, including mapping the lists of DTOs mapped while they are written. */
+        SERIALIZATION;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private RequestPhases() {}
+
+    /**
+     * Start recording the phases of the request handled by the current thread.
+     */
+    public static void start() {
+        CURRENT.set(new Recording());
+    }
+
+    /**
+     * Stop recording the phases of the request handled by the current thread.
+     *
+     * @return the recording, or {@code null} if none was started.
+     */
+    public static Recording stop() {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        return recording;
+    }
+
+    /**
+     * @return the recording of the request handled by the current thread, or {@code null} if there is none.
+     */
+    public static Recording current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Time some work as a phase of the current request.
+     *
+     * @param phase the phase of the work.
+     * @param work the work.
+     * @param <T> the type of the result of the work.
+     * @return the result of the work.
+     */
+    public static <T> T time(Phase phase, Supplier<T> work) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recording.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The time spent in each phase by a request, and the number of SQL statements it executed.
+     */
+    public static final class Recording {
+
+        private final long[] nanos = new long[Phase.values().length];
+
+        private int statements;
+
+        private int depth;
+
+        private Recording() {}
+
+        public void add(Phase phase, long phaseNanos) {
+            nanos[phase.ordinal()] += phaseNanos;
+        }
+
+        public long getNanos(Phase phase) {
+            return nanos[phase.ordinal()];
+        }
+
+        public void countStatement() {
+            statements++;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * Enter a phase which may be nested in itself, such as a repository calling another one.
+         *
+         * @return whether this is the outermost call, the only one to be timed.
+         */
+        boolean enter() {
+            return depth++ == 0;
+        }
+
+        void exit() {
+            depth--;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.synyctiks.car.management;
+
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.management.RequestPhases.Recording;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Aspect timing the calls to repositories and mappers as phases of the request being recorded by {@link RequestPhases}.
+ * <p>
+ * The time spent in a repository outside of the SQL statements, already recorded as {@link Phase#JDBC}, is recorded as
+ * {@link Phase#HYDRATION}.
+ */
+@Aspect
+public class RequestPhasesAspect {
+
+    /**
+     * Pointcut that matches all the methods of Spring Data repositories, including the inherited ones.
+     */
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all the methods of the entity mappers.
+     */
+    @Pointcut("execution(* com.synyctiks.car.service.mapper.EntityMapper+.*(..))")
+    public void mapperPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("repositoryPointcut()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Recording recording = RequestPhases.current();
+        if (recording == null || !recording.enter()) {
+            return proceedNested(joinPoint, recording);
+        }
+        long jdbcNanos = recording.getNanos(Phase.JDBC);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            recording.exit();
+            long outsideJdbcNanos = System.nanoTime() - start - (recording.getNanos(Phase.JDBC) - jdbcNanos);
+            recording.add(Phase.HYDRATION, Math.max(0, outsideJdbcNanos));
+        }
+    }
+
+    @Around("mapperPointcut()")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        Recording recording = RequestPhases.current();
+        if (recording == null) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            recording.add(Phase.MAPPING, System.nanoTime() - start);
+        }
+    }
+
+    private Object proceedNested(ProceedingJoinPoint joinPoint, Recording recording) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (recording != null) {
+                recording.exit();
+            }
+        }
+    }
+}
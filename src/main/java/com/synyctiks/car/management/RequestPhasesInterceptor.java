@@ -0,0 +1,36 @@
+package com.synyctiks.car.management;
+
+import com.synyctiks.car.management.RequestPhases.Recording;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Records the {@link RequestPhases} of the requests handled by controller methods, and exports them once the request
+ * is complete.
+ */
+public class RequestPhasesInterceptor implements HandlerInterceptor {
+
+    private final RequestPhasesMetersService requestPhasesMetersService;
+
+    public RequestPhasesInterceptor(RequestPhasesMetersService requestPhasesMetersService) {
+        this.requestPhasesMetersService = requestPhasesMetersService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestPhases.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Recording recording = RequestPhases.stop();
+        if (recording != null && handler instanceof HandlerMethod) {
+            requestPhasesMetersService.record(((HandlerMethod) handler).getMethod().getName(), recording);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.synyctiks.car.management;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.management.RequestPhases.Recording;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * JSON message converter recording the time spent writing response bodies as {@link Phase#SERIALIZATION}.
+ */
+public class RequestPhasesJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public RequestPhasesJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+        throws IOException, HttpMessageNotWritableException {
+        Recording recording = RequestPhases.current();
+        if (recording == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            recording.add(Phase.SERIALIZATION, System.nanoTime() - start);
+        }
+    }
+}
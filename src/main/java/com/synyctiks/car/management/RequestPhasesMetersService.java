@@ -0,0 +1,76 @@
+package com.synyctiks.car.management;
+
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.management.RequestPhases.Recording;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the {@link RequestPhases} recorded for each request as histograms, tagged with the endpoint, which is the name
+ * of the handler method, so that the number of series is bounded by the code rather than by the requests.
+ */
+public class RequestPhasesMetersService {
+
+    public static final String PHASE_METER_NAME = "carapp.request.phase";
+    public static final String PHASE_METER_DESCRIPTION = "Time spent by requests in each of their phases.";
+    public static final String STATEMENTS_METER_NAME = "carapp.request.statements";
+    public static final String STATEMENTS_METER_DESCRIPTION = "SQL statements executed by requests, a JDBC batch counting as one.";
+    public static final String STATEMENTS_METER_BASE_UNIT = "statements";
+    public static final String ENDPOINT_DIMENSION = "endpoint";
+    public static final String PHASE_DIMENSION = "phase";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    public RequestPhasesMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(String endpoint, Recording recording) {
+        EndpointMeters meters = endpointMeters.computeIfAbsent(endpoint, EndpointMeters::new);
+        for (Phase phase : Phase.values()) {
+            long nanos = recording.getNanos(phase);
+            if (nanos > 0) {
+                meters.phaseTimers[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        meters.statements.record(recording.getStatements());
+    }
+
+    private final class EndpointMeters {
+
+        private final Timer[] phaseTimers = new Timer[Phase.values().length];
+
+        private final DistributionSummary statements;
+
+        private EndpointMeters(String endpoint) {
+            for (Phase phase : Phase.values()) {
+                phaseTimers[phase.ordinal()] =
+                    Timer
+                        .builder(PHASE_METER_NAME)
+                        .description(PHASE_METER_DESCRIPTION)
+                        .tag(ENDPOINT_DIMENSION, endpoint)
+                        .tag(PHASE_DIMENSION, phase.tag())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(100_000))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(registry);
+            }
+            statements =
+                DistributionSummary
+                    .builder(STATEMENTS_METER_NAME)
+                    .description(STATEMENTS_METER_DESCRIPTION)
+                    .baseUnit(STATEMENTS_METER_BASE_UNIT)
+                    .tag(ENDPOINT_DIMENSION, endpoint)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.synyctiks.car.management;
+
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.management.RequestPhases.Recording;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener recording the SQL statements executed for the request being recorded by
+ * {@link RequestPhases}, and the time spent executing them as {@link Phase#JDBC}.
+ * <p>
+ * Registered on every session with {@code hibernate.session.events.auto}.
+ */
+public class RequestPhasesSessionEventListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient Recording recording;
+
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnd();
+    }
+
+    private void statementStart() {
+        recording = RequestPhases.current();
+        if (recording != null) {
+            recording.countStatement();
+            start = System.nanoTime();
+        }
+    }
+
+    private void statementEnd() {
+        if (recording != null) {
+            recording.add(Phase.JDBC, System.nanoTime() - start);
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.synyctiks.car.repository;
+
+import com.synyctiks.car.domain.Car;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria queries on {@link Car} which are not covered by {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}.
+ */
+public interface CarCriteriaRepository {
+    /**
+     * Stream the cars matching the specification through a forward-only database cursor.
+     * <p>
+     * The stream must be consumed inside a transaction and closed afterwards. Cars are detached from the
+     * persistence context as they are read, so memory usage does not grow with the size of the result.
+     *
+     * @param specification the specification the cars should match, may be {@code null}.
+     * @param fetchSize the number of rows fetched per round-trip.
+     * @return the matching cars.
+     */
+    Stream<Car> streamAll(Specification<Car> specification, int fetchSize);
+
+    /**
+     * Return at most {@code limit} cars matching the specification, in the given order.
+     * <p>
+     * Unlike paged queries, no offset and no count query are involved.
+     *
+     * @param specification the specification the cars should match, may be {@code null}.
+     * @param sort the order of the cars.
+     * @param limit the maximum number of cars returned.
+     * @return the matching cars.
+     */
+    List<Car> findAll(Specification<Car> specification, Sort sort, int limit);
+
+    /**
+     * Count the cars matching the specification by colour and by price bucket, in a single query.
+     * <p>
+     * Bucket {@code i} holds the prices from bound {@code i - 1}, inclusive, to bound {@code i}, exclusive, and
+     * bucket {@code -1} the cars without a price. Each tuple is a group, with the elements {@code colour},
+     * {@code bucket}, {@code count}, {@code minPrice}, {@code maxPrice} and {@code priceSum}.
+     *
+     * @param specification the specification the cars should match, may be {@code null}.
+     * @param bounds the bounds of the price buckets, in strictly ascending order.
+     * @return the groups of cars.
+     */
+    List<Tuple> countByColourAndPriceBucket(Specification<Car> specification, List<Integer> bounds);
+
+    /**
+     * Return the given attributes of the cars matching the specification, for the given page, without loading the cars.
+     * <p>
+     * Each tuple has one element per attribute, with the name of the attribute as alias. Nothing is added to the
+     * persistence context.
+     *
+     * @param specification the specification the cars should match, may be {@code null}.
+     * @param attributes the names of the attributes to read.
+     * @param pageable the page, its sort on the attributes of the cars, or unpaged for all the cars.
+     * @return the attributes of the matching cars.
+     */
+    List<Tuple> findAllAttributes(Specification<Car> specification, List<String> attributes, Pageable pageable);
+
+    /**
+     * Return the cars matching a JPQL condition, on the cars aliased {@code c}, for the given page.
+     *
+     * @param condition the condition the cars should match, empty to match all the cars.
+     * @param parameters the values of the positional parameters of the condition, in order.
+     * @param distinct whether to return each car once.
+     * @param pageable the page, its sort on the attributes of the cars.
+     * @return the matching cars.
+     */
+    List<Car> findAllWhere(String condition, List<Object> parameters, boolean distinct, Pageable pageable);
+
+    /**
+     * Count the cars matching a JPQL condition, on the cars aliased {@code c}.
+     *
+     * @param condition the condition the cars should match, empty to match all the cars.
+     * @param parameters the values of the positional parameters of the condition, in order.
+     * @param distinct whether to count each car once.
+     * @return the number of matching cars.
+     */
+    long countWhere(String condition, List<Object> parameters, boolean distinct);
+}
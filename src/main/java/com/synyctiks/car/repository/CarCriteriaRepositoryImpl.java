@@ -0,0 +1,154 @@
+package com.synyctiks.car.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.domain.Car_;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class CarCriteriaRepositoryImpl implements CarCriteriaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Car> streamAll(Specification<Car> specification, int fetchSize) {
+        return entityManager
+            .createQuery(createQuery(specification, Sort.unsorted()))
+            .setHint(HINT_FETCH_SIZE, fetchSize)
+            .setHint(HINT_READONLY, true)
+            .getResultStream()
+            .peek(entityManager::detach);
+    }
+
+    @Override
+    public List<Car> findAll(Specification<Car> specification, Sort sort, int limit) {
+        return entityManager.createQuery(createQuery(specification, sort)).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findAllAttributes(Specification<Car> specification, List<String> attributes, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> root = query.from(Car.class);
+        List<Selection<?>> selections = attributes
+            .stream()
+            .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+            .collect(Collectors.toList());
+        query.multiselect(selections);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Tuple> countByColourAndPriceBucket(Specification<Car> specification, List<Integer> bounds) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> root = query.from(Car.class);
+        Expression<Integer> price = root.get(Car_.price);
+        // Bounds are literals, which Hibernate inlines, so that the selected and grouped expressions are the same SQL
+        CriteriaBuilder.Case<Integer> bucket = builder.<Integer>selectCase().when(builder.isNull(price), builder.literal(-1));
+        for (int i = 0; i < bounds.size(); i++) {
+            bucket = bucket.when(builder.lessThan(price, builder.literal(bounds.get(i))), builder.literal(i));
+        }
+        Expression<Integer> bucketExpression = bucket.otherwise(builder.literal(bounds.size()));
+        Expression<String> colour = root.get(Car_.colour);
+        query.multiselect(
+            colour.alias("colour"),
+            bucketExpression.alias("bucket"),
+            builder.count(root).alias("count"),
+            builder.min(price).alias("minPrice"),
+            builder.max(price).alias("maxPrice"),
+            builder.sumAsLong(price).alias("priceSum")
+        );
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(colour, bucketExpression);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Car> findAllWhere(String condition, List<Object> parameters, boolean distinct, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+            (distinct ? "select distinct c" : "select c") + " from Car c" + where(condition),
+            pageable.getSort(),
+            "c"
+        );
+        TypedQuery<Car> query = entityManager.createQuery(jpql, Car.class).setHint(HINT_CACHEABLE, true);
+        bind(query, parameters);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public long countWhere(String condition, List<Object> parameters, boolean distinct) {
+        String jpql = (distinct ? "select count(distinct c)" : "select count(c)") + " from Car c" + where(condition);
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        bind(query, parameters);
+        return query.getSingleResult();
+    }
+
+    private static String where(String condition) {
+        return condition.isEmpty() ? "" : " where " + condition;
+    }
+
+    private static void bind(Query query, List<Object> parameters) {
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+    }
+
+    private CriteriaQuery<Car> createQuery(Specification<Car> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Car> query = builder.createQuery(Car.class);
+        Root<Car> root = query.from(Car.class);
+        query.select(root);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,285 @@
+package com.synyctiks.car.repository;
+
+import com.synyctiks.car.domain.Car;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Plain JDBC queries on the {@code car} table, which map the rows without going through {@link Car} entities and the
+ * persistence context.
+ * <p>
+ * Queries join the transaction in progress, and its connection, as the JPA repositories do.
+ */
+@Repository
+public class CarJdbcRepository {
+
+    private static final String COLUMNS = "c.id, c.name, c.colour, c.price";
+
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "name", "colour", "price");
+
+    /**
+     * The SQL type of each column which can be updated, in the order they are set.
+     */
+    private static final Map<String, Integer> UPDATABLE_COLUMNS = updatableColumns();
+
+    private static final String RETURNING = " returning c.id, c.name, c.colour, c.price, c.version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final Cache cache;
+
+    public CarJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = entityManagerFactory.getCache();
+    }
+
+    /**
+     * Return the rows of the cars matching an SQL condition, on the {@code car} table aliased {@code c}, for the given
+     * page, with the columns {@code id}, {@code name}, {@code colour} and {@code price}, in that order.
+     *
+     * @param condition the condition the cars should match, empty to match all the cars.
+     * @param parameters the values of the parameters {@code p1}, {@code p2}... of the condition, in order.
+     * @param pageable the page, its sort on the columns.
+     * @param rowMapper the mapper of each row.
+     * @param <T> the type of the mapped rows.
+     * @return the mapped rows of the matching cars.
+     */
+    public <T> List<T> findAllWhere(String condition, List<Object> parameters, Pageable pageable, RowMapper<T> rowMapper) {
+        MapSqlParameterSource parameterSource = parameterSource(parameters);
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from car c").append(where(condition));
+        if (pageable.getSort().isSorted()) {
+            sql.append(" order by ").append(pageable.getSort().stream().map(CarJdbcRepository::orderBy).collect(Collectors.joining(", ")));
+        }
+        if (pageable.isPaged()) {
+            sql.append(" limit :limit offset :offset");
+            parameterSource.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        }
+        return jdbcTemplate.query(sql.toString(), parameterSource, rowMapper);
+    }
+
+    /**
+     * Count the cars matching an SQL condition, on the {@code car} table aliased {@code c}.
+     *
+     * @param condition the condition the cars should match, empty to match all the cars.
+     * @param parameters the values of the parameters {@code p1}, {@code p2}... of the condition, in order.
+     * @return the number of matching cars.
+     */
+    public long countWhere(String condition, List<Object> parameters) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from car c" + where(condition), parameterSource(parameters), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Update all the columns of a car and increment its version, see {@link #updateColumns}.
+     *
+     * @param car the new state of the car, with the version the car must still have, or none to update any version.
+     * @return the updated car, with its new version, or nothing if there is no car of this id, at this version.
+     */
+    public Optional<Car> update(Car car) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("name", car.getName());
+        columns.put("colour", car.getColour());
+        columns.put("price", car.getPrice());
+        return updateColumns(car.getId(), columns, car.getVersion());
+    }
+
+    /**
+     * Update the given columns of a car, and only those, and increment its version, in a single statement which
+     * returns the updated row, rather than loading the car to merge it.
+     * <p>
+     * The statement bypasses the persistence context, so an instance of the car already loaded by the transaction
+     * keeps its former state. The car is evicted from the second-level cache, now and once the transaction completes,
+     * so that it is not cached as it was before the update meanwhile.
+     *
+     * @param id the id of the car.
+     * @param columns the new value of each column to update, among {@code name}, {@code colour} and {@code price},
+     * which must not be empty.
+     * @param version the version the car must still have, or {@code null} to update any version.
+     * @return the updated car, with its new version, or nothing if there is no car of this id, at this version.
+     */
+    public Optional<Car> updateColumns(Long id, Map<String, Object> columns, Long version) {
+        if (columns.isEmpty() || !UPDATABLE_COLUMNS.keySet().containsAll(columns.keySet())) {
+            throw new IllegalArgumentException("Cannot update the car columns " + columns.keySet());
+        }
+        MapSqlParameterSource parameterSource = new MapSqlParameterSource("id", id);
+        StringBuilder sql = new StringBuilder("update car c set ");
+        UPDATABLE_COLUMNS.forEach((column, type) -> {
+            if (columns.containsKey(column)) {
+                sql.append(column).append(" = :").append(column).append(", ");
+                parameterSource.addValue(column, columns.get(column), type);
+            }
+        });
+        sql.append("version = c.version + 1 where c.id = :id");
+        if (version != null) {
+            sql.append(" and c.version = :version");
+            parameterSource.addValue("version", version);
+        }
+        sql.append(RETURNING);
+        List<Car> updated = jdbcTemplate.query(sql.toString(), parameterSource, CarJdbcRepository::toCar);
+        evict(id);
+        return updated.stream().findFirst();
+    }
+
+    private void evict(Long id) {
+        cache.evict(Car.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evict(Car.class, id);
+                    }
+                }
+            );
+        }
+    }
+
+    private static Car toCar(ResultSet resultSet, int rowNum) throws SQLException {
+        Car car = new Car()
+            .id(resultSet.getLong("id"))
+            .name(resultSet.getString("name"))
+            .colour(resultSet.getString("colour"))
+            .price(resultSet.getObject("price", Integer.class));
+        car.setVersion(resultSet.getLong("version"));
+        return car;
+    }
+
+    /**
+     * Estimate the number of rows of the {@code car} table from the statistics of PostgreSQL, without reading it.
+     * <p>
+     * The estimate is the number of rows at the last {@code VACUUM} or {@code ANALYZE}, or, if the table was never
+     * analyzed, the number of live rows counted by the cumulative statistics.
+     *
+     * @return the estimate.
+     */
+    public RowEstimate estimateRows() {
+        return jdbcTemplate
+            .getJdbcOperations()
+            .queryForObject(
+                "select case when c.reltuples >= 0 then c.reltuples::bigint else coalesce(s.n_live_tup, 0) end as row_estimate, " +
+                "coalesce(s.n_mod_since_analyze, 0) as drift " +
+                "from pg_class c left join pg_stat_user_tables s on s.relid = c.oid where c.oid = 'car'::regclass",
+                (resultSet, rowNum) -> new RowEstimate(resultSet.getLong("row_estimate"), resultSet.getLong("drift"))
+            );
+    }
+
+    /**
+     * Count the rows of a random sample of the pages of the {@code car} table, and those matching an SQL condition.
+     *
+     * @param condition the condition, on the {@code car} table aliased {@code c}.
+     * @param parameters the values of the parameters {@code p1}, {@code p2}... of the condition, in order.
+     * @param percent the percentage of the pages sampled, between {@code 0} and {@code 100}.
+     * @return the counts of the sample.
+     */
+    public Sample sample(String condition, List<Object> parameters, double percent) {
+        String sql = String.format(
+            Locale.ROOT,
+            "select count(*) as sampled, count(*) filter (where %s) as matched from car c tablesample system (%f)",
+            condition.isEmpty() ? "true" : condition,
+            percent
+        );
+        return jdbcTemplate.queryForObject(
+            sql,
+            parameterSource(parameters),
+            (resultSet, rowNum) -> new Sample(resultSet.getLong("sampled"), resultSet.getLong("matched"))
+        );
+    }
+
+    private static Map<String, Integer> updatableColumns() {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        columns.put("name", Types.VARCHAR);
+        columns.put("colour", Types.VARCHAR);
+        columns.put("price", Types.INTEGER);
+        return Collections.unmodifiableMap(columns);
+    }
+
+    private static MapSqlParameterSource parameterSource(List<Object> parameters) {
+        MapSqlParameterSource parameterSource = new MapSqlParameterSource();
+        for (int i = 0; i < parameters.size(); i++) {
+            parameterSource.addValue("p" + (i + 1), parameters.get(i));
+        }
+        return parameterSource;
+    }
+
+    private static String where(String condition) {
+        return condition.isEmpty() ? "" : " where " + condition;
+    }
+
+    private static String orderBy(Sort.Order order) {
+        if (!SORTABLE_COLUMNS.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Cannot sort cars by " + order.getProperty());
+        }
+        String column = "c." + order.getProperty();
+        return (order.isIgnoreCase() ? "lower(" + column + ")" : column) + " " + order.getDirection().name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * An estimate of the number of rows of a table.
+     */
+    public static final class RowEstimate {
+
+        private final long rows;
+
+        private final long drift;
+
+        public RowEstimate(long rows, long drift) {
+            this.rows = rows;
+            this.drift = drift;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * @return the number of rows inserted, updated or deleted since the estimate was made, an upper bound of its
+         * change since.
+         */
+        public long getDrift() {
+            return drift;
+        }
+    }
+
+    /**
+     * The counts of the rows of a sample of a table.
+     */
+    public static final class Sample {
+
+        private final long sampled;
+
+        private final long matched;
+
+        public Sample(long sampled, long matched) {
+            this.sampled = sampled;
+            this.matched = matched;
+        }
+
+        public long getSampled() {
+            return sampled;
+        }
+
+        public long getMatched() {
+            return matched;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.synyctiks.car.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.synyctiks.car.domain.Car;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,14 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {}
+public interface CarRepository extends CarCriteriaRepository, JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
+    /**
+     * Criteria queries are cacheable: the hint is ignored unless {@code hibernate.cache.use_query_cache} is enabled.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Car> findAll(Specification<Car> spec);
+
+    @Query("select car.id from Car car where car.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,47 @@
+package com.synyctiks.car.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the reads of the current thread which must see every committed write, so that they go to the primary database
+ * rather than to a read replica, which may lag behind it.
+ * <p>
+ * Results keyed by the version of a table incremented once writes commit, such as cached counts, are read this way:
+ * read from a lagging replica, they would be kept under a version they do not reflect. Results which are only tagged
+ * with the version, such as lists with an {@code ETag}, may rather be read from a replica untagged.
+ * <p>
+ * The connection of a transaction is routed on its first statement, so the reads must be marked before it, usually
+ * around the whole transaction.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {}
+
+    /**
+     * Run the reads on the primary database.
+     *
+     * @param reads the reads.
+     * @param <T> the type of the result.
+     * @return the result of the reads.
+     */
+    public static <T> T call(Supplier<T> reads) {
+        if (isRequired()) {
+            return reads.get();
+        }
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            REQUIRED.remove();
+        }
+    }
+
+    /**
+     * @return whether the reads of the current thread must go to the primary database.
+     */
+    public static boolean isRequired() {
+        return REQUIRED.get() != null;
+    }
+}
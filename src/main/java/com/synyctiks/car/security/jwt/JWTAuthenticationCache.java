@@ -0,0 +1,121 @@
+package com.synyctiks.car.security.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded cache of the {@link Authentication} built from valid JWTs, so that a token is verified once rather than on
+ * every request bearing it.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token and expire with the token. When the cache is full, expired
+ * entries are purged, at most once per second, and new tokens are not cached until there is room again.
+ * A cache with a maximum size of {@code 0} never holds anything.
+ */
+public class JWTAuthenticationCache {
+
+    private static final long PURGE_INTERVAL_MILLIS = 1000;
+
+    private final int maxSize;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextPurgeMillis = new AtomicLong();
+
+    public JWTAuthenticationCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public JWTAuthenticationCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Get the authentication of a token.
+     *
+     * @param token the token.
+     * @return the authentication of the token, or {@code null} if it is not cached or has expired.
+     */
+    public Authentication get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        ByteBuffer key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(clock.millis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.authentication;
+    }
+
+    /**
+     * Cache the authentication of a valid token until it expires.
+     *
+     * @param token the token.
+     * @param authentication the authentication of the token.
+     * @param expiration the expiration of the token, tokens without one or already expired are not cached.
+     */
+    public void put(String token, Authentication authentication, Date expiration) {
+        if (maxSize <= 0 || expiration == null) {
+            return;
+        }
+        long now = clock.millis();
+        if (now >= expiration.getTime()) {
+            return;
+        }
+        if (entries.size() >= maxSize && !purgeExpired(now)) {
+            return;
+        }
+        entries.put(digest(token), new Entry(authentication, expiration.getTime()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private boolean purgeExpired(long now) {
+        long nextPurge = nextPurgeMillis.get();
+        if (now >= nextPurge && nextPurgeMillis.compareAndSet(nextPurge, now + PURGE_INTERVAL_MILLIS)) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+        return entries.size() < maxSize;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Authentication authentication;
+
+        private final long expirationMillis;
+
+        private Entry(Authentication authentication, long expirationMillis) {
+            this.authentication = authentication;
+            this.expirationMillis = expirationMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expirationMillis;
+        }
+    }
+}
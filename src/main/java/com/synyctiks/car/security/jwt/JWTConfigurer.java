@@ -9,13 +9,20 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private final TokenProvider tokenProvider;
 
+    private final JWTAuthenticationCache authenticationCache;
+
     public JWTConfigurer(TokenProvider tokenProvider) {
+        this(tokenProvider, new JWTAuthenticationCache(0));
+    }
+
+    public JWTConfigurer(TokenProvider tokenProvider, JWTAuthenticationCache authenticationCache) {
         this.tokenProvider = tokenProvider;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
     public void configure(HttpSecurity http) {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, authenticationCache);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -1,6 +1,8 @@
 package com.synyctiks.car.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import java.io.IOException;
+import java.util.Optional;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -14,6 +16,9 @@ import org.springframework.web.filter.GenericFilterBean;
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
  * found.
+ * <p>
+ * The authentication of each valid token is kept in a {@link JWTAuthenticationCache} until the token expires, and a
+ * token missing from it is verified and parsed only once.
  */
 public class JWTFilter extends GenericFilterBean {
 
@@ -21,8 +26,15 @@ public class JWTFilter extends GenericFilterBean {
 
     private final TokenProvider tokenProvider;
 
+    private final JWTAuthenticationCache authenticationCache;
+
     public JWTFilter(TokenProvider tokenProvider) {
+        this(tokenProvider, new JWTAuthenticationCache(0));
+    }
+
+    public JWTFilter(TokenProvider tokenProvider, JWTAuthenticationCache authenticationCache) {
         this.tokenProvider = tokenProvider;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -30,13 +42,27 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Authentication authentication = resolveAuthentication(jwt);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private Authentication resolveAuthentication(String jwt) {
+        Authentication authentication = this.authenticationCache.get(jwt);
+        if (authentication == null) {
+            Optional<Claims> claims = this.tokenProvider.parseValidClaims(jwt);
+            if (claims.isPresent()) {
+                authentication = this.tokenProvider.getAuthentication(claims.get(), jwt);
+                this.authenticationCache.put(jwt, authentication, claims.get().getExpiration());
+            }
+        }
+        return authentication;
+    }
+
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
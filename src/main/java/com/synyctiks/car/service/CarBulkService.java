@@ -0,0 +1,212 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.dto.CarBulkResultDTO;
+import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.mapper.CarMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for creating, updating and deleting {@link Car} entities in bulk.
+ * <p>
+ * Items are processed in chunks of {@code application.bulk.chunk-size}, each chunk in its own transaction, so that
+ * Hibernate sends the statements of a chunk as JDBC batches and the persistence context never holds more than one
+ * chunk. A chunk failing in the database is rolled back on its own, the chunks before it stay committed.
+ * Results are reported per item, in the order of the request.
+ */
+@Service
+public class CarBulkService {
+
+    private static final String ERROR_ROLLED_BACK = "rolledback";
+
+    private final Logger log = LoggerFactory.getLogger(CarBulkService.class);
+
+    private final CarRepository carRepository;
+
+    private final CarMapper carMapper;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CarBulkService(
+        CarRepository carRepository,
+        CarMapper carMapper,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.carRepository = carRepository;
+        this.carMapper = carMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Save new cars.
+     *
+     * @param carDTOs the cars to save, which must not have an id.
+     * @param results the callback receiving the result of each car, once its chunk is committed.
+     */
+    public void createAll(Iterator<CarDTO> carDTOs, Consumer<? super CarBulkResultDTO> results) {
+        log.debug("Request to save Cars in bulk");
+        processInChunks(carDTOs, CarDTO::getId, this::createChunk, results);
+    }
+
+    /**
+     * Update existing cars.
+     *
+     * @param carDTOs the cars to update, which must have an id.
+     * @param results the callback receiving the result of each car, once its chunk is committed.
+     */
+    public void updateAll(Iterator<CarDTO> carDTOs, Consumer<? super CarBulkResultDTO> results) {
+        log.debug("Request to update Cars in bulk");
+        processInChunks(carDTOs, CarDTO::getId, this::updateChunk, results);
+    }
+
+    /**
+     * Delete cars.
+     *
+     * @param ids the ids of the cars to delete.
+     * @param results the callback receiving the result of each id, once its chunk is committed.
+     */
+    public void deleteAll(Iterator<Long> ids, Consumer<? super CarBulkResultDTO> results) {
+        log.debug("Request to delete Cars in bulk");
+        processInChunks(ids, Function.identity(), this::deleteChunk, results);
+    }
+
+    private void createChunk(List<CarDTO> carDTOs, long offset, List<CarBulkResultDTO> results) {
+        for (int i = 0; i < carDTOs.size(); i++) {
+            CarDTO carDTO = carDTOs.get(i);
+            if (carDTO.getId() != null) {
+                results.add(new CarBulkResultDTO(offset + i, carDTO.getId(), HttpStatus.BAD_REQUEST.value(), "idexists"));
+            } else {
+                Car car = carRepository.save(carMapper.toEntity(carDTO));
+                results.add(new CarBulkResultDTO(offset + i, car.getId(), HttpStatus.CREATED.value(), null));
+            }
+        }
+    }
+
+    private void updateChunk(List<CarDTO> carDTOs, long offset, List<CarBulkResultDTO> results) {
+        Set<Long> ids = carDTOs.stream().map(CarDTO::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Car> existingCars = carRepository.findAllById(ids).stream().collect(Collectors.toMap(Car::getId, Function.identity()));
+        for (int i = 0; i < carDTOs.size(); i++) {
+            CarDTO carDTO = carDTOs.get(i);
+            Car car = carDTO.getId() == null ? null : existingCars.get(carDTO.getId());
+            if (carDTO.getId() == null) {
+                results.add(new CarBulkResultDTO(offset + i, null, HttpStatus.BAD_REQUEST.value(), "idnull"));
+            } else if (car == null) {
+                results.add(new CarBulkResultDTO(offset + i, carDTO.getId(), HttpStatus.NOT_FOUND.value(), "idnotfound"));
+            } else {
+                carMapper.update(car, carDTO);
+                results.add(new CarBulkResultDTO(offset + i, car.getId(), HttpStatus.OK.value(), null));
+            }
+        }
+    }
+
+    private void deleteChunk(List<Long> ids, long offset, List<CarBulkResultDTO> results) {
+        Set<Long> requestedIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> existingIds = new HashSet<>(carRepository.findExistingIds(requestedIds));
+        if (!existingIds.isEmpty()) {
+            carRepository.deleteAllByIdInBatch(existingIds);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(new CarBulkResultDTO(offset + i, null, HttpStatus.BAD_REQUEST.value(), "idnull"));
+            } else if (existingIds.remove(id)) {
+                results.add(new CarBulkResultDTO(offset + i, id, HttpStatus.NO_CONTENT.value(), null));
+            } else {
+                results.add(new CarBulkResultDTO(offset + i, id, HttpStatus.NOT_FOUND.value(), "idnotfound"));
+            }
+        }
+    }
+
+    private <T> void processInChunks(
+        Iterator<T> items,
+        Function<T, Long> idOf,
+        ChunkOperation<T> operation,
+        Consumer<? super CarBulkResultDTO> results
+    ) {
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        long offset = 0;
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == chunkSize || !items.hasNext()) {
+                processChunk(chunk, offset, idOf, operation).forEach(results);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+    }
+
+    private <T> List<CarBulkResultDTO> processChunk(List<T> chunk, long offset, Function<T, Long> idOf, ChunkOperation<T> operation) {
+        List<CarBulkResultDTO> chunkResults = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                operation.process(chunk, offset, chunkResults);
+                entityManager.flush();
+                entityManager.clear();
+                List<Long> changedIds = chunkResults
+                    .stream()
+                    .filter(result -> result.getError() == null)
+                    .map(CarBulkResultDTO::getId)
+                    .collect(Collectors.toList());
+                if (!changedIds.isEmpty()) {
+                    eventPublisher.publishEvent(new CarChangedEvent(changedIds));
+                }
+            });
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            log.warn("Bulk chunk of {} Cars starting at item {} was rolled back: {}", chunk.size(), offset, e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                CarBulkResultDTO rolledBack = new CarBulkResultDTO(
+                    offset + i,
+                    idOf.apply(chunk.get(i)),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    ERROR_ROLLED_BACK
+                );
+                if (i >= chunkResults.size()) {
+                    chunkResults.add(rolledBack);
+                } else if (chunkResults.get(i).getError() == null) {
+                    chunkResults.set(i, rolledBack);
+                }
+            }
+        }
+        return chunkResults;
+    }
+
+    @FunctionalInterface
+    private interface ChunkOperation<T> {
+        void process(List<T> chunk, long offset, List<CarBulkResultDTO> results);
+    }
+}
@@ -0,0 +1,26 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.domain.Car;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Event published when {@link Car} entities are created, updated or deleted, within the transaction writing them.
+ */
+public class CarChangedEvent {
+
+    private final Collection<Long> ids;
+
+    public CarChangedEvent(Collection<Long> ids) {
+        this.ids = Collections.unmodifiableCollection(ids);
+    }
+
+    public Collection<Long> getIds() {
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return "CarChangedEvent{" + "ids=" + ids + "}";
+    }
+}
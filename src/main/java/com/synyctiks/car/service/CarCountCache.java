@@ -0,0 +1,90 @@
+package com.synyctiks.car.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of the numbers of cars matching criteria, shared by the instances of the service through Hazelcast.
+ * <p>
+ * Counts are keyed by the criteria and the {@link CarTableVersion}, see {@link CarCountKey}, which is incremented cluster-wide once a
+ * {@link CarChangedEvent} is committed. Counts of older versions are never read again, and expire after
+ * {@code application.count-cache.time-to-live-seconds}.
+ * <p>
+ * Hits and misses are counted in the {@code carapp.count.cache} meter, and their ratio in
+ * {@code carapp.count.cache.hit.ratio}.
+ */
+@Service
+public class CarCountCache {
+
+    public static final String MAP_NAME = "car-count";
+
+    private final boolean enabled;
+
+    private final IMap<CarCountKey, Long> counts;
+
+    private final CarTableVersion version;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public CarCountCache(
+        HazelcastInstance hazelcastInstance,
+        CarTableVersion version,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = applicationProperties.getCountCache().isEnabled();
+        this.counts = enabled ? hazelcastInstance.getMap(MAP_NAME) : null;
+        this.version = version;
+        this.hits = Counter
+            .builder("carapp.count.cache")
+            .tag("result", "hit")
+            .description("The number of car counts read from the cache")
+            .register(meterRegistry);
+        this.misses = Counter
+            .builder("carapp.count.cache")
+            .tag("result", "miss")
+            .description("The number of car counts not found in the cache")
+            .register(meterRegistry);
+        Gauge
+            .builder("carapp.count.cache.hit.ratio", this, CarCountCache::getHitRatio)
+            .description("The share of the car counts read from the cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the number of cars matching the criteria from the cache, or else count them and cache the result.
+     *
+     * @param criteria the criteria.
+     * @param counter the function counting the matching cars in the database.
+     * @return the number of matching cars.
+     */
+    public long count(CarCriteria criteria, LongSupplier counter) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+        CarCountKey key = new CarCountKey(version.get(), criteria);
+        Long count = counts.get(key);
+        if (count != null) {
+            hits.increment();
+            return count;
+        }
+        misses.increment();
+        long counted = counter.getAsLong();
+        counts.set(key, counted);
+        return counted;
+    }
+
+    private double getHitRatio() {
+        double requests = hits.count() + misses.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+}
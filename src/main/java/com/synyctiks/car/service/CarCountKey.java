@@ -0,0 +1,48 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.service.criteria.CarCriteria;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Key of a count in the {@link CarCountCache}: the criteria, copied so that they are not changed once cached, and the
+ * {@link CarTableVersion} they were counted at.
+ * <p>
+ * Hazelcast compares keys in their serialized form, so criteria equal but serialized differently are counted apart,
+ * which costs a count, while criteria which only print the same are never mixed up.
+ */
+final class CarCountKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+
+    private final CarCriteria criteria;
+
+    CarCountKey(long version, CarCriteria criteria) {
+        this.version = version;
+        this.criteria = criteria.copy();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarCountKey that = (CarCountKey) o;
+        return version == that.version && Objects.equals(criteria, that.criteria);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, criteria);
+    }
+
+    @Override
+    public String toString() {
+        return "CarCountKey{version=" + version + ", criteria=" + criteria + "}";
+    }
+}
@@ -0,0 +1,124 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.service.dto.CarFacetsDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Rolls groups of cars, by colour and price bucket, up into {@link CarFacetsDTO}, whether the groups are counted by
+ * the database or by the {@link com.synyctiks.car.service.readmodel.CarReadModel}.
+ * <p>
+ * Bucket {@code i} holds the prices from bound {@code i - 1}, inclusive, to bound {@code i}, exclusive, so that
+ * {@code n} bounds make {@code n + 1} buckets. Cars without a price are in bucket {@code -1}.
+ */
+public final class CarFacetsAccumulator {
+
+    /**
+     * The bucket of the cars without a price.
+     */
+    public static final int NO_PRICE = -1;
+
+    private static final Comparator<Map.Entry<String, Long>> BY_COUNT_THEN_COLOUR = Map.Entry
+        .<String, Long>comparingByValue()
+        .reversed()
+        .thenComparing(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder())));
+
+    private final List<Integer> bounds;
+
+    // A HashMap, as it allows the null key of the cars without a colour
+    private final Map<String, Long> colours = new HashMap<>();
+
+    private final long[] buckets;
+
+    private long count;
+
+    private long withoutPrice;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+    private long priceSum;
+
+    public CarFacetsAccumulator(List<Integer> bounds) {
+        this.bounds = bounds;
+        this.buckets = new long[bounds.size() + 1];
+    }
+
+    /**
+     * @param bounds the bounds of the buckets, in strictly ascending order.
+     * @param price a price.
+     * @return the bucket of the price.
+     */
+    public static int bucketOf(List<Integer> bounds, Integer price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        int bucket = 0;
+        while (bucket < bounds.size() && price >= bounds.get(bucket)) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Add a group of cars.
+     *
+     * @param colour the colour of the cars, may be {@code null}.
+     * @param bucket the price bucket of the cars.
+     * @param groupCount the number of cars.
+     * @param groupMinPrice the lowest price of the cars, {@code null} if they have none.
+     * @param groupMaxPrice the highest price of the cars, {@code null} if they have none.
+     * @param groupPriceSum the sum of the prices of the cars.
+     */
+    public void add(String colour, int bucket, long groupCount, Integer groupMinPrice, Integer groupMaxPrice, long groupPriceSum) {
+        count += groupCount;
+        colours.merge(colour, groupCount, Long::sum);
+        if (bucket == NO_PRICE) {
+            withoutPrice += groupCount;
+            return;
+        }
+        buckets[bucket] += groupCount;
+        priceSum += groupPriceSum;
+        if (groupMinPrice != null && (minPrice == null || groupMinPrice < minPrice)) {
+            minPrice = groupMinPrice;
+        }
+        if (groupMaxPrice != null && (maxPrice == null || groupMaxPrice > maxPrice)) {
+            maxPrice = groupMaxPrice;
+        }
+    }
+
+    public CarFacetsDTO toDto() {
+        CarFacetsDTO facets = new CarFacetsDTO();
+        facets.setCount(count);
+        facets.setMinPrice(minPrice);
+        facets.setMaxPrice(maxPrice);
+        long priced = count - withoutPrice;
+        facets.setAveragePrice(priced == 0 ? null : (double) priceSum / priced);
+        facets.setWithoutPrice(withoutPrice);
+        facets.setColours(
+            colours
+                .entrySet()
+                .stream()
+                .sorted(BY_COUNT_THEN_COLOUR)
+                .map(entry -> new CarFacetsDTO.ColourCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList())
+        );
+        List<CarFacetsDTO.PriceBucket> priceBuckets = new ArrayList<>(buckets.length);
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            priceBuckets.add(
+                new CarFacetsDTO.PriceBucket(
+                    bucket == 0 ? null : bounds.get(bucket - 1),
+                    bucket == bounds.size() ? null : bounds.get(bucket),
+                    buckets[bucket]
+                )
+            );
+        }
+        facets.setPriceBuckets(priceBuckets);
+        return facets;
+    }
+}
@@ -0,0 +1,79 @@
+package com.synyctiks.car.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the car table recommended for a {@link CarQueryShape}, with the Liquibase changeset creating it.
+ */
+public final class CarIndexRecommendation {
+
+    private final List<String> columns;
+
+    private final List<String> descending;
+
+    private final List<String> include;
+
+    CarIndexRecommendation(List<String> columns, List<String> descending, List<String> include) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.descending = Collections.unmodifiableList(descending);
+        this.include = Collections.unmodifiableList(include);
+    }
+
+    public String getName() {
+        return "idx_car_" + String.join("_", columns) + (include.isEmpty() ? "" : "_covering");
+    }
+
+    /**
+     * @return the indexed columns, in order.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the indexed columns sorted in the direction opposite to the first one.
+     */
+    public List<String> getDescending() {
+        return descending;
+    }
+
+    /**
+     * @return the columns stored in the index without being indexed, so that it covers the query.
+     */
+    public List<String> getInclude() {
+        return include;
+    }
+
+    /**
+     * @return a Liquibase changeset creating the index, concurrently, as the trigram indexes of the car table are.
+     */
+    public String getChangeSet() {
+        String indexed = columns
+            .stream()
+            .map(column -> descending.contains(column) ? column + " DESC" : column)
+            .collect(Collectors.joining(", "));
+        String create =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS " +
+            getName() +
+            " ON car (" +
+            indexed +
+            ")" +
+            (include.isEmpty() ? "" : " INCLUDE (" + String.join(", ", include) + ")");
+        return (
+            "<changeSet id=\"" +
+            getName() +
+            "\" author=\"jhipster\" dbms=\"postgresql\" runInTransaction=\"false\">\n" +
+            "    <sql>" +
+            create +
+            "</sql>\n" +
+            "    <rollback>\n" +
+            "        <sql>DROP INDEX CONCURRENTLY IF EXISTS " +
+            getName() +
+            "</sql>\n" +
+            "    </rollback>\n" +
+            "</changeSet>"
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.service.dto.CarDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Position in a keyset (seek) paginated listing of cars.
+ * <p>
+ * Listings are ordered either by {@code id}, or by {@code (price, id)} with cars without a price last. A cursor holds
+ * the sort key of the last car of a page, and is exchanged with clients as an opaque token.
+ */
+public final class CarKeysetCursor {
+
+    public enum Order {
+        ID,
+        PRICE;
+
+        /**
+         * @param value the order, as given in a request parameter.
+         * @return the matching order.
+         * @throws IllegalArgumentException if the value is not a known order.
+         */
+        public static Order fromParameter(String value) {
+            return Order.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final String ID_PREFIX = "i";
+
+    private static final String PRICE_PREFIX = "p";
+
+    private static final String SEPARATOR = ":";
+
+    private final Order order;
+
+    private final Long id;
+
+    private final Integer price;
+
+    private CarKeysetCursor(Order order, Long id, Integer price) {
+        this.order = order;
+        this.id = id;
+        this.price = price;
+    }
+
+    /**
+     * @param order the order of the listing.
+     * @return a cursor positioned before the first car.
+     */
+    public static CarKeysetCursor first(Order order) {
+        return new CarKeysetCursor(Objects.requireNonNull(order), null, null);
+    }
+
+    /**
+     * @param order the order of the listing.
+     * @param last the last car of the current page.
+     * @return a cursor positioned just after the given car.
+     */
+    public static CarKeysetCursor after(Order order, CarDTO last) {
+        return new CarKeysetCursor(Objects.requireNonNull(order), Objects.requireNonNull(last.getId()), last.getPrice());
+    }
+
+    /**
+     * @param token a token obtained from {@link #encode()}.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static CarKeysetCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, -1);
+        try {
+            if (parts.length == 2 && ID_PREFIX.equals(parts[0])) {
+                return new CarKeysetCursor(Order.ID, Long.valueOf(parts[1]), null);
+            }
+            if (parts.length == 3 && PRICE_PREFIX.equals(parts[0])) {
+                Integer price = parts[1].isEmpty() ? null : Integer.valueOf(parts[1]);
+                return new CarKeysetCursor(Order.PRICE, Long.valueOf(parts[2]), price);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        throw new IllegalArgumentException("Malformed cursor");
+    }
+
+    /**
+     * @return the opaque token representing this cursor.
+     */
+    public String encode() {
+        String value;
+        if (order == Order.ID) {
+            value = ID_PREFIX + SEPARATOR + id;
+        } else {
+            value = PRICE_PREFIX + SEPARATOR + (price == null ? "" : price) + SEPARATOR + id;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @return the id of the last car already returned, or {@code null} if no car was returned yet.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the price of the last car already returned, {@code null} if it had none or if no car was returned yet.
+     */
+    public Integer getPrice() {
+        return price;
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarKeysetCursor{" +
+            "order=" + order +
+            ", id=" + id +
+            ", price=" + price +
+            "}";
+    }
+}
@@ -1,78 +1,456 @@
 package com.synyctiks.car.service;
 
+import com.synyctiks.car.config.ApplicationProperties;
 import com.synyctiks.car.domain.*; // for static metamodels
 import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.management.RequestPhases;
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.repository.CarJdbcRepository;
 import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.repository.PrimaryReads;
 import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarCountDTO;
 import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarFacetsDTO;
 import com.synyctiks.car.service.mapper.CarMapper;
+import com.synyctiks.car.service.mapper.MappedList;
+import com.synyctiks.car.service.readmodel.CarReadModel;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.metamodel.SingularAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link Car} entities in the database.
  * The main input is a {@link CarCriteria} which gets converted to {@link Specification},
- * in a way that all the filters must apply.
+ * in a way that all the filters must apply, or, for lists, pages and counts, to a cached {@link CarQueryTemplate}.
+ * With the {@code jdbc} engine, lists and pages are read by {@link CarJdbcRepository}, rather than as entities.
  * It returns a {@link List} of {@link CarDTO} or a {@link Page} of {@link CarDTO} which fulfills the criteria.
  */
 @Service
 @Transactional(readOnly = true)
 public class CarQueryService extends QueryService<Car> {
 
+    /**
+     * The fields of {@link CarDTO} which can be read on their own, see {@link #findFieldsByCriteria(CarCriteria, Collection, Pageable)}.
+     */
+    public static final Set<String> PROJECTABLE_FIELDS = Set.of(Car_.ID, Car_.NAME, Car_.COLOUR, Car_.PRICE);
+
+    static final char LIKE_ESCAPE = '\\';
+
     private final Logger log = LoggerFactory.getLogger(CarQueryService.class);
 
     private final CarRepository carRepository;
 
     private final CarMapper carMapper;
 
-    public CarQueryService(CarRepository carRepository, CarMapper carMapper) {
+    /**
+     * The mapper without the aspects advising the bean, which would cost a proxied call for each car of the lists
+     * mapped while they are written, see {@link MappedList}.
+     */
+    private final CarMapper listItemMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final CarReadModel carReadModel;
+
+    private final CarQueryShapeStatistics carQueryShapeStatistics;
+
+    private final CarCountCache carCountCache;
+
+    private final CarQueryTemplateCache carQueryTemplateCache;
+
+    private final CarJdbcRepository carJdbcRepository;
+
+    private final CarTableVersion carTableVersion;
+
+    public CarQueryService(
+        CarRepository carRepository,
+        CarMapper carMapper,
+        ApplicationProperties applicationProperties,
+        CarReadModel carReadModel,
+        CarQueryShapeStatistics carQueryShapeStatistics,
+        CarCountCache carCountCache,
+        CarQueryTemplateCache carQueryTemplateCache,
+        CarJdbcRepository carJdbcRepository,
+        CarTableVersion carTableVersion
+    ) {
         this.carRepository = carRepository;
         this.carMapper = carMapper;
+        Object target = AopProxyUtils.getSingletonTarget(carMapper);
+        this.listItemMapper = target instanceof CarMapper ? (CarMapper) target : carMapper;
+        this.applicationProperties = applicationProperties;
+        this.carReadModel = carReadModel;
+        this.carQueryShapeStatistics = carQueryShapeStatistics;
+        this.carCountCache = carCountCache;
+        this.carQueryTemplateCache = carQueryTemplateCache;
+        this.carJdbcRepository = carJdbcRepository;
+        this.carTableVersion = carTableVersion;
     }
 
     /**
-     * Return a {@link List} of {@link CarDTO} which matches the criteria from the database.
+     * Return the version the lists of {@link CarDTO} are read at: that of the {@link CarReadModel} when it answers them,
+     * or else the {@link CarTableVersion}, unless they may be read from a replica, which does not replicate it.
+     * @param page The pagination information of the lists.
+     * @return the version, which lists read at another one may differ from, or nothing if it is not known.
+     */
+    public Optional<String> getListVersion(Pageable page) {
+        Optional<String> version = carReadModel.getVersion(page);
+        return version.isPresent() ? version : getTableVersion();
+    }
+
+    /**
+     * Return the version the fields of the entities are read at, see {@link #getListVersion(Pageable)}.
+     * @return the version, which fields read at another one may differ from, or nothing if it is not known.
+     */
+    public Optional<String> getFieldsVersion() {
+        return getTableVersion();
+    }
+
+    /**
+     * Return a {@link List} of {@link CarDTO} which matches the criteria from the {@link CarReadModel} when it is loaded,
+     * or else from the database.
      * @param criteria The object which holds all the filters, which the entities should match.
-     * @return the matching entities.
+     * @return the matching entities, mapped as they are read from the database, see {@link MappedList}, with the version
+     * they were read at.
      */
     @Transactional(readOnly = true)
-    public List<CarDTO> findByCriteria(CarCriteria criteria) {
+    public Versioned<List<CarDTO>> findByCriteria(CarCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Car> specification = createSpecification(criteria);
-        return carMapper.toDto(carRepository.findAll(specification));
+        long start = System.nanoTime();
+        try {
+            Optional<Versioned<Page<CarDTO>>> fromReadModel = carReadModel.findByCriteria(criteria, Pageable.unpaged());
+            if (fromReadModel.isPresent()) {
+                return fromReadModel.get().map(Page::getContent);
+            }
+            String version = getTableVersion().orElse(null);
+            Optional<CarQueryTemplate> template = getTemplate(criteria);
+            if (template.isPresent() && isJdbcEngine()) {
+                List<CarDTO> cars = carJdbcRepository.findAllWhere(
+                    template.get().getSqlCondition(),
+                    template.get().bind(criteria),
+                    Pageable.unpaged(),
+                    CarQueryService::toDto
+                );
+                return new Versioned<>(cars, version);
+            }
+            if (template.isPresent()) {
+                List<Car> cars = carRepository.findAllWhere(
+                    template.get().getCondition(),
+                    template.get().bind(criteria),
+                    template.get().isDistinct(),
+                    Pageable.unpaged()
+                );
+                return new Versioned<>(MappedList.of(cars, listItemMapper::toDto), version);
+            }
+            final Specification<Car> specification = createSpecification(criteria);
+            return new Versioned<>(MappedList.of(carRepository.findAll(specification), listItemMapper::toDto), version);
+        } finally {
+            carQueryShapeStatistics.record("list", criteria, Sort.unsorted(), System.nanoTime() - start);
+        }
     }
 
     /**
-     * Return a {@link Page} of {@link CarDTO} which matches the criteria from the database.
+     * Return the given fields of the entities which match the criteria from the database, without loading the entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The fields to return, among {@link #PROJECTABLE_FIELDS}.
+     * @param page The page, which should be returned, or unpaged for all the matching entities.
+     * @return the fields of the matching entities, by name, in the order of the requested fields, with the version they
+     * were read at.
+     */
+    @Transactional(readOnly = true)
+    public Versioned<Page<Map<String, Object>>> findFieldsByCriteria(CarCriteria criteria, Collection<String> fields, Pageable page) {
+        log.debug("find fields by criteria : {}, fields: {}, page: {}", criteria, fields, page);
+        long start = System.nanoTime();
+        try {
+            String version = getTableVersion().orElse(null);
+            final Specification<Car> specification = createSpecification(criteria);
+            List<String> attributes = new ArrayList<>(new LinkedHashSet<>(fields));
+            List<Tuple> tuples = carRepository.findAllAttributes(specification, attributes, page);
+            List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+            for (Tuple tuple : tuples) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (String attribute : attributes) {
+                    row.put(attribute, tuple.get(attribute));
+                }
+                rows.add(row);
+            }
+            return new Versioned<>(PageableExecutionUtils.getPage(rows, page, () -> carRepository.count(specification)), version);
+        } finally {
+            carQueryShapeStatistics.record("fields", criteria, page.getSort(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Return a {@link Page} of {@link CarDTO} which matches the criteria from the {@link CarReadModel} when it is loaded,
+     * or else from the database.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
-     * @return the matching entities.
+     * @return the matching entities, with the version they were read at.
      */
     @Transactional(readOnly = true)
-    public Page<CarDTO> findByCriteria(CarCriteria criteria, Pageable page) {
+    public Versioned<Page<CarDTO>> findByCriteria(CarCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        long start = System.nanoTime();
+        try {
+            Optional<Versioned<Page<CarDTO>>> fromReadModel = carReadModel.findByCriteria(criteria, page);
+            if (fromReadModel.isPresent()) {
+                return fromReadModel.get();
+            }
+            String version = getTableVersion().orElse(null);
+            Optional<CarQueryTemplate> template = getTemplate(criteria);
+            if (template.isPresent() && page.getSort().stream().allMatch(order -> PROJECTABLE_FIELDS.contains(order.getProperty()))) {
+                List<Object> parameters = template.get().bind(criteria);
+                if (isJdbcEngine()) {
+                    String sqlCondition = template.get().getSqlCondition();
+                    List<CarDTO> cars = carJdbcRepository.findAllWhere(sqlCondition, parameters, page, CarQueryService::toDto);
+                    return new Versioned<>(
+                        PageableExecutionUtils.getPage(cars, page, () -> carJdbcRepository.countWhere(sqlCondition, parameters)),
+                        version
+                    );
+                }
+                String condition = template.get().getCondition();
+                boolean distinct = template.get().isDistinct();
+                List<Car> cars = carRepository.findAllWhere(condition, parameters, distinct, page);
+                return new Versioned<>(
+                    PageableExecutionUtils
+                        .getPage(cars, page, () -> carRepository.countWhere(condition, parameters, distinct))
+                        .map(carMapper::toDto),
+                    version
+                );
+            }
+            final Specification<Car> specification = createSpecification(criteria);
+            return new Versioned<>(carRepository.findAll(specification, page).map(carMapper::toDto), version);
+        } finally {
+            carQueryShapeStatistics.record("page", criteria, page.getSort(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Return a {@link Slice} of {@link CarDTO} which matches the criteria from the database, starting after the cursor.
+     * <p>
+     * The database seeks directly to the cursor position, and no count query is issued, so every page costs the same
+     * whatever its depth.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position after which the entities are returned.
+     * @param size The maximum number of entities returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CarDTO> findByCriteria(CarCriteria criteria, CarKeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        long start = System.nanoTime();
+        try {
+            final Specification<Car> specification = createSpecification(criteria);
+            List<Car> cars;
+            if (cursor.getOrder() == CarKeysetCursor.Order.ID) {
+                cars = carRepository.findAll(specification.and(seekById(cursor)), Sort.by(Car_.ID), size + 1);
+            } else if (cursor.isFirst() || cursor.getPrice() != null) {
+                cars = carRepository.findAll(specification.and(seekByPrice(cursor)), Sort.by(Car_.PRICE, Car_.ID), size + 1);
+                if (!cursor.isFirst() && cars.size() <= size) {
+                    // Cars without a price come last, they are read separately so that the price range stays index-friendly
+                    cars = new ArrayList<>(cars);
+                    cars.addAll(carRepository.findAll(specification.and(withoutPrice()), Sort.by(Car_.ID), size + 1 - cars.size()));
+                }
+            } else {
+                cars = carRepository.findAll(specification.and(withoutPrice()).and(seekById(cursor)), Sort.by(Car_.ID), size + 1);
+            }
+            boolean hasNext = cars.size() > size;
+            List<CarDTO> content = carMapper.toDto(hasNext ? cars.subList(0, size) : cars);
+            return new SliceImpl<>(content, Pageable.unpaged(), hasNext);
+        } finally {
+            carQueryShapeStatistics.record("keyset", criteria, keysetSort(cursor), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Pass each {@link CarDTO} which matches the criteria to the consumer, one at a time, as it is read from the database.
+     * Nothing is accumulated, so memory usage stays constant whatever the number of matching entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The callback receiving the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(CarCriteria criteria, Consumer<? super CarDTO> consumer) {
+        log.debug("stream by criteria : {}", criteria);
         final Specification<Car> specification = createSpecification(criteria);
-        return carRepository.findAll(specification, page).map(carMapper::toDto);
+        try (Stream<Car> cars = carRepository.streamAll(specification, applicationProperties.getQuery().getStreamFetchSize())) {
+            cars.map(carMapper::toDto).forEach(consumer);
+        }
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the number of matching entities in the {@link CarReadModel} when it is loaded, or else from the
+     * {@link CarCountCache}, or else in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(CarCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Car> specification = createSpecification(criteria);
-        return carRepository.count(specification);
+        long start = System.nanoTime();
+        try {
+            return count(criteria);
+        } finally {
+            carQueryShapeStatistics.record("count", criteria, Sort.unsorted(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count the matching entities as {@link #countByCriteria} does, without recording the shape of the query, for the
+     * queries recorded under another shape.
+     */
+    private long count(CarCriteria criteria) {
+        OptionalLong fromReadModel = carReadModel.countByCriteria(criteria);
+        if (fromReadModel.isPresent()) {
+            return fromReadModel.getAsLong();
+        }
+        return carCountCache.count(
+            criteria,
+            () ->
+                getTemplate(criteria)
+                    .map(template -> carRepository.countWhere(template.getCondition(), template.bind(criteria), template.isDistinct()))
+                    .orElseGet(() -> carRepository.count(createSpecification(criteria)))
+        );
+    }
+
+    /**
+     * Estimate the number of matching entities, without reading all of them.
+     * <p>
+     * Without filters, the estimate is the number of rows in the statistics of the table, and its error bound the
+     * number of rows written since. With filters, it is the share of the rows matching them in a sample of the pages
+     * of the table, with the half-width of its 95% confidence interval, as if the rows were sampled independently,
+     * added to the error bound. The entities are counted exactly, as by {@link #countByCriteria}, when the
+     * {@link CarReadModel} is loaded, or when the estimate is under {@code application.approximate-count.exact-threshold}.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities, exact or estimated.
+     */
+    @Transactional(readOnly = true)
+    public CarCountDTO approximateCountByCriteria(CarCriteria criteria) {
+        log.debug("approximate count by criteria : {}", criteria);
+        long start = System.nanoTime();
+        try {
+            ApplicationProperties.ApproximateCount properties = applicationProperties.getApproximateCount();
+            Optional<CarQueryTemplate> template = getTemplate(criteria);
+            if (carReadModel.isWarm() || template.isEmpty()) {
+                return CarCountDTO.exact(count(criteria));
+            }
+            CarJdbcRepository.RowEstimate table = carJdbcRepository.estimateRows();
+            if (table.getRows() < properties.getExactThreshold()) {
+                return CarCountDTO.exact(count(criteria));
+            }
+            String condition = template.get().getSqlCondition();
+            if (condition.isEmpty()) {
+                return new CarCountDTO(table.getRows(), false, table.getDrift());
+            }
+            List<Object> parameters = template.get().bind(criteria);
+            CarJdbcRepository.Sample sample = carJdbcRepository.sample(condition, parameters, properties.getSamplePercent());
+            if (sample.getSampled() == 0) {
+                return CarCountDTO.exact(count(criteria));
+            }
+            CarCountDTO estimate = estimate(table, sample);
+            return estimate.getCount() < properties.getExactThreshold() ? CarCountDTO.exact(count(criteria)) : estimate;
+        } finally {
+            carQueryShapeStatistics.record("approximateCount", criteria, Sort.unsorted(), System.nanoTime() - start);
+        }
+    }
+
+    static CarCountDTO estimate(CarJdbcRepository.RowEstimate table, CarJdbcRepository.Sample sample) {
+        double share = (double) sample.getMatched() / sample.getSampled();
+        double margin = 1.96 * Math.sqrt(share * (1 - share) / sample.getSampled());
+        long errorBound = (long) Math.ceil(table.getRows() * margin) + table.getDrift();
+        return new CarCountDTO(Math.round(table.getRows() * share), false, errorBound);
+    }
+
+    /**
+     * Return the facets of the entities which match the criteria, from the {@link CarReadModel} when it is loaded, or
+     * else from the database, in a single query.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param priceBucketBounds The bounds of the price buckets, in strictly ascending order.
+     * @return the facets of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public CarFacetsDTO facetsByCriteria(CarCriteria criteria, List<Integer> priceBucketBounds) {
+        log.debug("facets by criteria : {}, price buckets: {}", criteria, priceBucketBounds);
+        long start = System.nanoTime();
+        try {
+            Optional<CarFacetsDTO> fromReadModel = carReadModel.facetsByCriteria(criteria, priceBucketBounds);
+            if (fromReadModel.isPresent()) {
+                return fromReadModel.get();
+            }
+            final Specification<Car> specification = createSpecification(criteria);
+            CarFacetsAccumulator facets = new CarFacetsAccumulator(priceBucketBounds);
+            for (Tuple group : carRepository.countByColourAndPriceBucket(specification, priceBucketBounds)) {
+                Long priceSum = group.get("priceSum", Long.class);
+                facets.add(
+                    group.get("colour", String.class),
+                    group.get("bucket", Integer.class),
+                    group.get("count", Long.class),
+                    group.get("minPrice", Integer.class),
+                    group.get("maxPrice", Integer.class),
+                    priceSum == null ? 0 : priceSum
+                );
+            }
+            return facets.toDto();
+        } finally {
+            carQueryShapeStatistics.record("facets", criteria, Sort.unsorted(), System.nanoTime() - start);
+        }
+    }
+
+    private static Sort keysetSort(CarKeysetCursor cursor) {
+        return cursor.getOrder() == CarKeysetCursor.Order.ID ? Sort.by(Car_.ID) : Sort.by(Car_.PRICE, Car_.ID);
+    }
+
+    private Specification<Car> seekById(CarKeysetCursor cursor) {
+        if (cursor.isFirst()) {
+            return Specification.where(null);
+        }
+        return (root, query, builder) -> builder.greaterThan(root.get(Car_.id), cursor.getId());
+    }
+
+    private Specification<Car> seekByPrice(CarKeysetCursor cursor) {
+        if (cursor.isFirst()) {
+            return Specification.where(null);
+        }
+        // price >= :price AND (price > :price OR id > :id), the first condition bounds the index range scan
+        return (root, query, builder) ->
+            builder.and(
+                builder.greaterThanOrEqualTo(root.get(Car_.price), cursor.getPrice()),
+                builder.or(
+                    builder.greaterThan(root.get(Car_.price), cursor.getPrice()),
+                    builder.greaterThan(root.get(Car_.id), cursor.getId())
+                )
+            );
+    }
+
+    private Specification<Car> withoutPrice() {
+        return (root, query, builder) -> builder.isNull(root.get(Car_.price));
     }
 
     /**
@@ -81,6 +459,47 @@ public class CarQueryService extends QueryService<Car> {
      * @return the matching {@link Specification} of the entity.
      */
     protected Specification<Car> createSpecification(CarCriteria criteria) {
+        return RequestPhases.time(Phase.SPECIFICATION, () -> buildSpecification(criteria));
+    }
+
+    /**
+     * @return the version of the table, to be read before the results it versions, or nothing if they may be read from a
+     * replica lagging behind it, see {@link PrimaryReads}.
+     */
+    private Optional<String> getTableVersion() {
+        if (!applicationProperties.getDatasource().getReplicas().isEmpty() && !PrimaryReads.isRequired()) {
+            return Optional.empty();
+        }
+        return Optional.of(String.valueOf(carTableVersion.get()));
+    }
+
+    private boolean isJdbcEngine() {
+        return applicationProperties.getQuery().getEngine() == ApplicationProperties.Query.Engine.JDBC;
+    }
+
+    /**
+     * Map a row of {@link CarJdbcRepository} straight to a {@link CarDTO}, without a {@link Car} entity in between.
+     */
+    private static CarDTO toDto(ResultSet resultSet, int rowNum) throws SQLException {
+        CarDTO carDTO = new CarDTO();
+        carDTO.setId(resultSet.getLong(1));
+        carDTO.setName(resultSet.getString(2));
+        carDTO.setColour(resultSet.getString(3));
+        int price = resultSet.getInt(4);
+        carDTO.setPrice(resultSet.wasNull() ? null : price);
+        return carDTO;
+    }
+
+    /**
+     * Get the compiled {@link CarQueryTemplate} of the criteria, used instead of its {@link Specification} when present.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the template, or nothing if the criteria has none or the templates are disabled.
+     */
+    protected Optional<CarQueryTemplate> getTemplate(CarCriteria criteria) {
+        return RequestPhases.time(Phase.SPECIFICATION, () -> carQueryTemplateCache.get(criteria));
+    }
+
+    private Specification<Car> buildSpecification(CarCriteria criteria) {
         Specification<Car> specification = Specification.where(null);
         if (criteria != null) {
             // This has to be called first, because the distinct method returns null
@@ -91,10 +510,10 @@ public class CarQueryService extends QueryService<Car> {
                 specification = specification.and(buildRangeSpecification(criteria.getId(), Car_.id));
             }
             if (criteria.getName() != null) {
-                specification = specification.and(buildStringSpecification(criteria.getName(), Car_.name));
+                specification = specification.and(buildSubstringSpecification(criteria.getName(), Car_.name));
             }
             if (criteria.getColour() != null) {
-                specification = specification.and(buildStringSpecification(criteria.getColour(), Car_.colour));
+                specification = specification.and(buildSubstringSpecification(criteria.getColour(), Car_.colour));
             }
             if (criteria.getPrice() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getPrice(), Car_.price));
@@ -102,4 +521,50 @@ public class CarQueryService extends QueryService<Car> {
         }
         return specification;
     }
+
+    /**
+     * Like {@link #buildStringSpecification}, but with {@code contains} and {@code doesNotContain} matching
+     * {@code lower(column) LIKE '%value%'}, the expression of the trigram indexes on the column, with the wildcards of
+     * the value escaped.
+     * @param filter the filter on the column.
+     * @param field the column.
+     * @return the matching {@link Specification}.
+     */
+    private Specification<Car> buildSubstringSpecification(StringFilter filter, SingularAttribute<Car, String> field) {
+        // Same precedence as QueryService, where equals, in and notIn win over contains and doesNotContain
+        if (filter.getEquals() == null && filter.getIn() == null && filter.getNotIn() == null) {
+            if (filter.getContains() != null) {
+                return containsSpecification(field, filter.getContains());
+            }
+            if (filter.getDoesNotContain() != null) {
+                return Specification.not(containsSpecification(field, filter.getDoesNotContain()));
+            }
+        }
+        return buildStringSpecification(filter, field);
+    }
+
+    private Specification<Car> containsSpecification(SingularAttribute<Car, String> field, String value) {
+        String pattern = containsPattern(value);
+        return (root, query, builder) -> builder.like(builder.lower(root.get(field)), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * @param value the value of a {@code contains} or {@code doesNotContain} filter.
+     * @return the pattern matching the lower case values containing it, escaped with {@link #LIKE_ESCAPE}.
+     */
+    static String containsPattern(String value) {
+        return "%" + escapeLike(value.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
 }
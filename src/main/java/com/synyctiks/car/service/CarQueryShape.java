@@ -0,0 +1,215 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.service.criteria.CarCriteria;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * The shape of a query on cars: the operation, the filters used, without their values, and the sort.
+ * <p>
+ * Queries of the same shape are served by the same indexes, see {@link #recommendIndex()}.
+ */
+public final class CarQueryShape {
+
+    /**
+     * The shape recorded for the queries of new shapes, once the number of shapes recorded reaches its limit.
+     */
+    public static final CarQueryShape OTHER = new CarQueryShape("other", Collections.emptySortedSet(), Collections.emptyList());
+
+    private static final List<String> COLUMNS = List.of("id", "name", "colour", "price", "version");
+
+    /**
+     * The b-tree indexes of the car table, by name, the trigram indexes only serve {@code contains}.
+     */
+    private static final Map<String, List<String>> EXISTING_INDEXES = Map.of(
+        "car_pkey",
+        List.of("id"),
+        "idx_car_price_id",
+        List.of("price", "id")
+    );
+
+    private static final String EQUALITY = "equals|in|specified";
+
+    private static final String RANGE = "greaterThan|greaterThanOrEqual|lessThan|lessThanOrEqual";
+
+    private final String operation;
+
+    private final SortedSet<String> filters;
+
+    private final List<String> sort;
+
+    private CarQueryShape(String operation, SortedSet<String> filters, List<String> sort) {
+        this.operation = operation;
+        this.filters = filters;
+        this.sort = sort;
+    }
+
+    /**
+     * Get the shape of a query.
+     *
+     * @param operation the kind of query, such as {@code page} or {@code count}.
+     * @param criteria the criteria of the query.
+     * @param sort the sort of the query.
+     * @return the shape of the query.
+     */
+    public static CarQueryShape of(String operation, CarCriteria criteria, Sort sort) {
+        SortedSet<String> filters = new TreeSet<>();
+        if (criteria != null) {
+            addFilters(filters, "id", criteria.getId());
+            addFilters(filters, "name", criteria.getName());
+            addFilters(filters, "colour", criteria.getColour());
+            addFilters(filters, "price", criteria.getPrice());
+        }
+        List<String> orders = sort
+            .stream()
+            .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
+            .collect(Collectors.toList());
+        return new CarQueryShape(operation, Collections.unmodifiableSortedSet(filters), Collections.unmodifiableList(orders));
+    }
+
+    private static void addFilters(SortedSet<String> filters, String field, Filter<?> filter) {
+        if (filter == null) {
+            return;
+        }
+        addFilter(filters, field, "equals", filter.getEquals());
+        addFilter(filters, field, "notEquals", filter.getNotEquals());
+        addFilter(filters, field, "in", filter.getIn());
+        addFilter(filters, field, "notIn", filter.getNotIn());
+        addFilter(filters, field, "specified", filter.getSpecified());
+        if (filter instanceof StringFilter) {
+            addFilter(filters, field, "contains", ((StringFilter) filter).getContains());
+            addFilter(filters, field, "doesNotContain", ((StringFilter) filter).getDoesNotContain());
+        }
+        if (filter instanceof RangeFilter) {
+            RangeFilter<?> range = (RangeFilter<?>) filter;
+            addFilter(filters, field, "greaterThan", range.getGreaterThan());
+            addFilter(filters, field, "greaterThanOrEqual", range.getGreaterThanOrEqual());
+            addFilter(filters, field, "lessThan", range.getLessThan());
+            addFilter(filters, field, "lessThanOrEqual", range.getLessThanOrEqual());
+        }
+    }
+
+    private static void addFilter(SortedSet<String> filters, String field, String operator, Object value) {
+        if (value != null) {
+            filters.add(field + "." + operator);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public SortedSet<String> getFilters() {
+        return filters;
+    }
+
+    public List<String> getSort() {
+        return sort;
+    }
+
+    /**
+     * Recommend the b-tree index serving the queries of this shape: the columns compared for equality first, then the
+     * first column compared to a range, then, if the range is on the first sort column or there is no range, the
+     * sort columns, so that pages are read in order. Pages and lists of cars read every column, so their index includes
+     * the other columns, for index-only scans.
+     *
+     * @return the recommended index, or nothing if no index would help or an existing index already serves the shape.
+     */
+    public Optional<CarIndexRecommendation> recommendIndex() {
+        List<String> columns = new ArrayList<>();
+        for (String column : COLUMNS) {
+            if (hasFilter(column, EQUALITY)) {
+                columns.add(column);
+            }
+        }
+        String range = COLUMNS
+            .stream()
+            .filter(column -> !columns.contains(column) && hasFilter(column, RANGE))
+            .findFirst()
+            .orElse(null);
+        if (range != null) {
+            columns.add(range);
+        }
+        List<String> descending = new ArrayList<>();
+        if (!"count".equals(operation) && (range == null || (!sort.isEmpty() && column(sort.get(0)).equals(range)))) {
+            for (String order : sort) {
+                String column = column(order);
+                if (!COLUMNS.contains(column)) {
+                    break;
+                }
+                if (!columns.contains(column)) {
+                    columns.add(column);
+                }
+                if (!direction(order).equals(direction(sort.get(0)))) {
+                    descending.add(column);
+                }
+                if (column.equals("id")) {
+                    // Ids are unique, the columns after them never decide the order
+                    break;
+                }
+            }
+        }
+        if (columns.isEmpty() || columns.get(0).equals("id") || isServedByExistingIndex(columns)) {
+            return Optional.empty();
+        }
+        List<String> include = new ArrayList<>();
+        if (!"count".equals(operation)) {
+            COLUMNS.stream().filter(column -> !columns.contains(column)).forEach(include::add);
+        }
+        return Optional.of(new CarIndexRecommendation(columns, descending, include));
+    }
+
+    private boolean hasFilter(String column, String operators) {
+        return filters.stream().anyMatch(filter -> filter.matches(column + "\\.(" + operators + ")"));
+    }
+
+    private static String column(String order) {
+        return order.substring(0, order.indexOf(','));
+    }
+
+    private static String direction(String order) {
+        return order.substring(order.indexOf(',') + 1);
+    }
+
+    private static boolean isServedByExistingIndex(List<String> columns) {
+        return EXISTING_INDEXES
+            .values()
+            .stream()
+            .anyMatch(index -> index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CarQueryShape)) {
+            return false;
+        }
+        CarQueryShape that = (CarQueryShape) o;
+        return operation.equals(that.operation) && filters.equals(that.filters) && sort.equals(that.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operation, filters, sort);
+    }
+
+    @Override
+    public String toString() {
+        String shape = operation + " " + (filters.isEmpty() ? "*" : String.join("&", filters));
+        return sort.isEmpty() ? shape : shape + " sort=" + String.join(";", sort);
+    }
+}
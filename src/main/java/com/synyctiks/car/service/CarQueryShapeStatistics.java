@@ -0,0 +1,114 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+/**
+ * Statistics of the queries on cars, by {@link CarQueryShape}, to find out which filters and sorts clients use and
+ * which indexes would serve them.
+ * <p>
+ * At most {@code application.query.shape-statistics-size} shapes are recorded, queries of other shapes are recorded
+ * as {@link CarQueryShape#OTHER}. A size of {@code 0} disables the statistics.
+ */
+@Service
+public class CarQueryShapeStatistics {
+
+    private final int maxSize;
+
+    private final ConcurrentMap<CarQueryShape, Statistics> statistics = new ConcurrentHashMap<>();
+
+    public CarQueryShapeStatistics(ApplicationProperties applicationProperties) {
+        this.maxSize = applicationProperties.getQuery().getShapeStatisticsSize();
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Record a query.
+     *
+     * @param operation the kind of query, such as {@code page} or {@code count}.
+     * @param criteria the criteria of the query.
+     * @param sort the sort of the query.
+     * @param nanos the time the query took.
+     */
+    public void record(String operation, CarCriteria criteria, Sort sort, long nanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        CarQueryShape shape = CarQueryShape.of(operation, criteria, sort);
+        Statistics shapeStatistics = statistics.get(shape);
+        if (shapeStatistics == null) {
+            shape = statistics.size() < maxSize ? shape : CarQueryShape.OTHER;
+            shapeStatistics = statistics.computeIfAbsent(shape, Statistics::new);
+        }
+        shapeStatistics.record(nanos);
+    }
+
+    /**
+     * @param limit the maximum number of shapes returned.
+     * @return the statistics of the shapes the most time was spent on, first.
+     */
+    public List<Statistics> getTop(int limit) {
+        return statistics
+            .values()
+            .stream()
+            .sorted(Comparator.comparingLong(Statistics::getTotalNanos).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * The number of queries of a shape and the time they took.
+     */
+    public static final class Statistics {
+
+        private final CarQueryShape shape;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Statistics(CarQueryShape shape) {
+            this.shape = shape;
+        }
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public CarQueryShape getShape() {
+            return shape;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.service.criteria.CarCriteria;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * A JPQL condition on cars, {@code c}, equivalent to the {@code Specification} of {@link CarQueryService} for the
+ * criteria of a given shape, with the values of the filters as positional parameters.
+ * <p>
+ * The condition only depends on the filters which decide the result, so it is compiled once per {@link #keyOf key},
+ * see {@link CarQueryTemplateCache}, and each query only {@link #bind binds} the values of its criteria. Hibernate
+ * then finds the query plan of the same JPQL in its plan cache, and the database sees the same parameterised SQL,
+ * instead of one per combination of inlined literals.
+ */
+public final class CarQueryTemplate {
+
+    private static final String ALIAS = "c";
+
+    private static final String LIKE_ESCAPE = " escape '" + CarQueryService.LIKE_ESCAPE + "'";
+
+    private final String condition;
+
+    private final String sqlCondition;
+
+    private final boolean distinct;
+
+    private final List<String> parameters;
+
+    private CarQueryTemplate(String condition, String sqlCondition, boolean distinct, List<String> parameters) {
+        this.condition = condition;
+        this.sqlCondition = sqlCondition;
+        this.distinct = distinct;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Get the key of the template of a criteria: whether the query is distinct, and the filters which decide the
+     * result, in the order they are applied, without their values but for {@code specified}.
+     *
+     * @param criteria the criteria.
+     * @return the key, or {@code null} if the criteria has no template, as it filters on an empty list of values.
+     */
+    public static String keyOf(CarCriteria criteria) {
+        List<String> operations = operations(criteria);
+        if (operations == null) {
+            return null;
+        }
+        boolean distinct = criteria != null && Boolean.TRUE.equals(criteria.getDistinct());
+        return (distinct ? "distinct " : "") + String.join("&", operations);
+    }
+
+    /**
+     * Compile the template of a criteria, for all the criteria of the same {@link #keyOf key}.
+     *
+     * @param criteria the criteria.
+     * @return the template, or {@code null} if the criteria has no template.
+     */
+    public static CarQueryTemplate compile(CarCriteria criteria) {
+        List<String> operations = operations(criteria);
+        if (operations == null) {
+            return null;
+        }
+        List<String> conditions = new ArrayList<>();
+        List<String> sqlConditions = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        for (String operation : operations) {
+            int dot = operation.indexOf('.');
+            String path = ALIAS + "." + operation.substring(0, dot);
+            String operator = operation.substring(dot + 1);
+            int position = parameters.size() + 1;
+            conditions.add(condition(path, operator, "?" + position));
+            sqlConditions.add(condition(path, operator, ":p" + position));
+            if (!operator.equals("specified") && !operator.equals("notSpecified")) {
+                parameters.add(operation);
+            }
+        }
+        boolean distinct = criteria != null && Boolean.TRUE.equals(criteria.getDistinct());
+        return new CarQueryTemplate(
+            String.join(" and ", conditions),
+            String.join(" and ", sqlConditions),
+            distinct,
+            Collections.unmodifiableList(parameters)
+        );
+    }
+
+    private static String condition(String path, String operator, String parameter) {
+        switch (operator) {
+            case "specified":
+                return path + " is not null";
+            case "notSpecified":
+                return path + " is null";
+            case "equals":
+                return path + " = " + parameter;
+            case "notEquals":
+                return path + " <> " + parameter;
+            case "in":
+                return path + " in (" + parameter + ")";
+            case "notIn":
+                return path + " not in (" + parameter + ")";
+            case "contains":
+                return "lower(" + path + ") like " + parameter + LIKE_ESCAPE;
+            case "doesNotContain":
+                return "lower(" + path + ") not like " + parameter + LIKE_ESCAPE;
+            case "greaterThan":
+                return path + " > " + parameter;
+            case "greaterThanOrEqual":
+                return path + " >= " + parameter;
+            case "lessThan":
+                return path + " < " + parameter;
+            case "lessThanOrEqual":
+                return path + " <= " + parameter;
+            default:
+                throw new IllegalStateException("Unexpected operator " + operator);
+        }
+    }
+
+    /**
+     * @return the condition on {@code c}, empty if the criteria do not filter the cars.
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * @return the same condition in SQL, on the {@code car} table aliased {@code c}, with the parameters named
+     * {@code p1}, {@code p2}... in order, empty if the criteria do not filter the cars.
+     */
+    public String getSqlCondition() {
+        return sqlCondition;
+    }
+
+    public boolean isDistinct() {
+        return distinct;
+    }
+
+    /**
+     * Get the values of the parameters of the condition, from a criteria of the same key as the one compiled.
+     *
+     * @param criteria the criteria.
+     * @return the value of each positional parameter, in order.
+     */
+    public List<Object> bind(CarCriteria criteria) {
+        List<Object> values = new ArrayList<>(parameters.size());
+        for (String parameter : parameters) {
+            int dot = parameter.indexOf('.');
+            values.add(valueOf(filterOf(criteria, parameter.substring(0, dot)), parameter.substring(dot + 1)));
+        }
+        return values;
+    }
+
+    private static List<String> operations(CarCriteria criteria) {
+        List<String> operations = new ArrayList<>();
+        if (criteria == null) {
+            return operations;
+        }
+        boolean supported =
+            addRangeOperations(operations, "id", criteria.getId()) &&
+            addStringOperations(operations, "name", criteria.getName()) &&
+            addStringOperations(operations, "colour", criteria.getColour()) &&
+            addRangeOperations(operations, "price", criteria.getPrice());
+        return supported ? operations : null;
+    }
+
+    /**
+     * Same precedence as {@code QueryService.buildSpecification(RangeFilter, ...)}: equals, else in, else all the others.
+     */
+    private static boolean addRangeOperations(List<String> operations, String field, RangeFilter<?> filter) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            operations.add(field + ".equals");
+            return true;
+        }
+        if (filter.getIn() != null) {
+            operations.add(field + ".in");
+            return !filter.getIn().isEmpty();
+        }
+        addSpecified(operations, field, filter);
+        addIfPresent(operations, field, "notEquals", filter.getNotEquals());
+        addIfPresent(operations, field, "notIn", filter.getNotIn());
+        addIfPresent(operations, field, "greaterThan", filter.getGreaterThan());
+        addIfPresent(operations, field, "greaterThanOrEqual", filter.getGreaterThanOrEqual());
+        addIfPresent(operations, field, "lessThan", filter.getLessThan());
+        addIfPresent(operations, field, "lessThanOrEqual", filter.getLessThanOrEqual());
+        return filter.getNotIn() == null || !filter.getNotIn().isEmpty();
+    }
+
+    /**
+     * Same precedence as {@code QueryService.buildSpecification(StringFilter, ...)}: the first filter set wins.
+     */
+    private static boolean addStringOperations(List<String> operations, String field, StringFilter filter) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            operations.add(field + ".equals");
+        } else if (filter.getIn() != null) {
+            operations.add(field + ".in");
+            return !filter.getIn().isEmpty();
+        } else if (filter.getNotIn() != null) {
+            operations.add(field + ".notIn");
+            return !filter.getNotIn().isEmpty();
+        } else if (filter.getContains() != null) {
+            operations.add(field + ".contains");
+        } else if (filter.getDoesNotContain() != null) {
+            operations.add(field + ".doesNotContain");
+        } else if (filter.getNotEquals() != null) {
+            operations.add(field + ".notEquals");
+        } else {
+            addSpecified(operations, field, filter);
+        }
+        return true;
+    }
+
+    private static void addSpecified(List<String> operations, String field, Filter<?> filter) {
+        if (filter.getSpecified() != null) {
+            operations.add(field + (filter.getSpecified() ? ".specified" : ".notSpecified"));
+        }
+    }
+
+    private static void addIfPresent(List<String> operations, String field, String operator, Object value) {
+        if (value != null) {
+            operations.add(field + "." + operator);
+        }
+    }
+
+    private static Filter<?> filterOf(CarCriteria criteria, String field) {
+        switch (field) {
+            case "id":
+                return criteria.getId();
+            case "name":
+                return criteria.getName();
+            case "colour":
+                return criteria.getColour();
+            case "price":
+                return criteria.getPrice();
+            default:
+                throw new IllegalStateException("Unexpected field " + field);
+        }
+    }
+
+    private static Object valueOf(Filter<?> filter, String operator) {
+        switch (operator) {
+            case "equals":
+                return filter.getEquals();
+            case "notEquals":
+                return filter.getNotEquals();
+            case "in":
+                return filter.getIn();
+            case "notIn":
+                return filter.getNotIn();
+            case "contains":
+                return CarQueryService.containsPattern(((StringFilter) filter).getContains());
+            case "doesNotContain":
+                return CarQueryService.containsPattern(((StringFilter) filter).getDoesNotContain());
+            case "greaterThan":
+                return ((RangeFilter<?>) filter).getGreaterThan();
+            case "greaterThanOrEqual":
+                return ((RangeFilter<?>) filter).getGreaterThanOrEqual();
+            case "lessThan":
+                return ((RangeFilter<?>) filter).getLessThan();
+            case "lessThanOrEqual":
+                return ((RangeFilter<?>) filter).getLessThanOrEqual();
+            default:
+                throw new IllegalStateException("Unexpected operator " + operator);
+        }
+    }
+}
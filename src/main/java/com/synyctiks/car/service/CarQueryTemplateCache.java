@@ -0,0 +1,82 @@
+package com.synyctiks.car.service;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded cache of the {@link CarQueryTemplate} of each key, evicting the least recently used templates.
+ * <p>
+ * Hits and misses are counted in the {@code carapp.query.template.cache} meter, and the number of templates cached
+ * is in {@code carapp.query.template.cache.size}.
+ */
+@Service
+public class CarQueryTemplateCache {
+
+    private final int maxSize;
+
+    private final Map<String, CarQueryTemplate> templates;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public CarQueryTemplateCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.maxSize = applicationProperties.getQuery().getTemplateCacheSize();
+        this.templates =
+            Collections.synchronizedMap(
+                new LinkedHashMap<String, CarQueryTemplate>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CarQueryTemplate> eldest) {
+                        return size() > maxSize;
+                    }
+                }
+            );
+        this.hits = Counter
+            .builder("carapp.query.template.cache")
+            .tag("result", "hit")
+            .description("The number of car query templates read from the cache")
+            .register(meterRegistry);
+        this.misses = Counter
+            .builder("carapp.query.template.cache")
+            .tag("result", "miss")
+            .description("The number of car query templates compiled")
+            .register(meterRegistry);
+        Gauge
+            .builder("carapp.query.template.cache.size", templates, Map::size)
+            .description("The number of car query templates cached")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the template of a criteria from the cache, or else compile and cache it.
+     *
+     * @param criteria the criteria.
+     * @return the template, or nothing if the criteria has no template or the cache is disabled.
+     */
+    public Optional<CarQueryTemplate> get(CarCriteria criteria) {
+        if (maxSize <= 0) {
+            return Optional.empty();
+        }
+        String key = CarQueryTemplate.keyOf(criteria);
+        if (key == null) {
+            return Optional.empty();
+        }
+        CarQueryTemplate template = templates.get(key);
+        if (template != null) {
+            hits.increment();
+            return Optional.of(template);
+        }
+        misses.increment();
+        template = CarQueryTemplate.compile(criteria);
+        templates.put(key, template);
+        return Optional.of(template);
+    }
+}
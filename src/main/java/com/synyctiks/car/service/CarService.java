@@ -1,6 +1,7 @@
 package com.synyctiks.car.service;
 
 import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarPatchDTO;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,20 +18,22 @@ public interface CarService {
     CarDTO save(CarDTO carDTO);
 
     /**
-     * Updates a car.
+     * Updates a car, in a single statement.
      *
-     * @param carDTO the entity to update.
-     * @return the persisted entity.
+     * @param carDTO the entity to update, with the version it was read at, or none to overwrite the current one.
+     * @return the persisted entity, or nothing if there is no car of this id.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the car is no longer at the given version.
      */
-    CarDTO update(CarDTO carDTO);
+    Optional<CarDTO> update(CarDTO carDTO);
 
     /**
-     * Partially updates a car.
+     * Partially updates a car: only the fields present in the patch are written, in a single statement.
      *
-     * @param carDTO the entity to update partially.
-     * @return the persisted entity.
+     * @param carPatchDTO the patch, with the version the car was read at, or none to update the current one.
+     * @return the persisted entity, or nothing if there is no car of this id.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the car is no longer at the given version.
      */
-    Optional<CarDTO> partialUpdate(CarDTO carDTO);
+    Optional<CarDTO> partialUpdate(CarPatchDTO carPatchDTO);
 
     /**
      * Get all the cars.
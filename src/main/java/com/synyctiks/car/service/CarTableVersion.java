@@ -0,0 +1,48 @@
+package com.synyctiks.car.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.cp.IAtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Version of the car table, shared by the instances of the service through Hazelcast, and incremented once a
+ * {@link CarChangedEvent} is committed: results read at a version are still current as long as it is.
+ * <p>
+ * The version starts from the time the cluster first used it, so that versions handed out before a restart of the
+ * whole cluster are not handed out again for other contents.
+ */
+@Service
+public class CarTableVersion {
+
+    private static final String NAME = "car-version";
+
+    private final Logger log = LoggerFactory.getLogger(CarTableVersion.class);
+
+    private final IAtomicLong version;
+
+    public CarTableVersion(HazelcastInstance hazelcastInstance) {
+        this.version = hazelcastInstance.getCPSubsystem().getAtomicLong(NAME);
+        this.version.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    /**
+     * @return the current version, to be read before the results it versions.
+     */
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * Increment the version, once the changes to the cars are committed.
+     *
+     * @param event the changed cars.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        log.trace("Incrementing the Car table version after {}", event);
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,39 @@
+package com.synyctiks.car.service;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A result, with the version of the cars it was read at, if known: it is current as long as the version is, and at
+ * least as recent as the changes the version counts.
+ *
+ * @param <T> the type of the result.
+ */
+public final class Versioned<T> {
+
+    private final T content;
+
+    private final String version;
+
+    public Versioned(T content, String version) {
+        this.content = content;
+        this.version = version;
+    }
+
+    public T getContent() {
+        return content;
+    }
+
+    public Optional<String> getVersion() {
+        return Optional.ofNullable(version);
+    }
+
+    /**
+     * @param mapper the function applied to the result.
+     * @param <U> the type of the mapped result.
+     * @return the mapped result, at the same version.
+     */
+    public <U> Versioned<U> map(Function<? super T, ? extends U> mapper) {
+        return new Versioned<>(mapper.apply(content), version);
+    }
+}
@@ -0,0 +1,80 @@
+package com.synyctiks.car.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one item of a bulk operation on {@link com.synyctiks.car.domain.Car} entities.
+ */
+public class CarBulkResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long index;
+
+    private Long id;
+
+    private int status;
+
+    private String error;
+
+    public CarBulkResultDTO() {}
+
+    public CarBulkResultDTO(long index, Long id, int status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    /**
+     * @return the position of the item in the request, starting at 0.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public void setIndex(long index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the HTTP status the item would have had in a single-item request.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the error key, or {@code null} if the item succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarBulkResultDTO{" +
+            "index=" + getIndex() +
+            ", id=" + getId() +
+            ", status=" + getStatus() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.synyctiks.car.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A number of {@link com.synyctiks.car.domain.Car} entities, either exact or estimated.
+ */
+public class CarCountDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+
+    private boolean exact;
+
+    private long errorBound;
+
+    public CarCountDTO() {}
+
+    public CarCountDTO(long count, boolean exact, long errorBound) {
+        this.count = count;
+        this.exact = exact;
+        this.errorBound = errorBound;
+    }
+
+    public static CarCountDTO exact(long count) {
+        return new CarCountDTO(count, true, 0);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * @return whether the count was counted, rather than estimated.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+
+    /**
+     * @return the maximum difference expected between the count and the actual number, {@code 0} if exact.
+     */
+    public long getErrorBound() {
+        return errorBound;
+    }
+
+    public void setErrorBound(long errorBound) {
+        this.errorBound = errorBound;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarCountDTO{" +
+            "count=" + getCount() +
+            ", exact=" + isExact() +
+            ", errorBound=" + getErrorBound() +
+            "}";
+    }
+}
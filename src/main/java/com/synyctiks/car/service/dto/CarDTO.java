@@ -1,5 +1,6 @@
 package com.synyctiks.car.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -17,6 +18,12 @@ public class CarDTO implements Serializable {
 
     private Integer price;
 
+    /**
+     * Not serialized: the version is exchanged in the {@code ETag} and {@code If-Match} headers.
+     */
+    @JsonIgnore
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -49,6 +56,14 @@ public class CarDTO implements Serializable {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -78,6 +93,7 @@ public class CarDTO implements Serializable {
             ", name='" + getName() + "'" +
             ", colour='" + getColour() + "'" +
             ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
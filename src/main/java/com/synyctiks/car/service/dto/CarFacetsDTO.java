@@ -0,0 +1,212 @@
+package com.synyctiks.car.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The facets of the {@link com.synyctiks.car.domain.Car} entities matching criteria: their number per colour and per
+ * price bucket, and statistics of their prices.
+ */
+public class CarFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+    private Double averagePrice;
+
+    private long withoutPrice;
+
+    private List<ColourCount> colours;
+
+    private List<PriceBucket> priceBuckets;
+
+    /**
+     * @return the number of matching cars.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Integer getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Integer minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Integer maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * @return the average price of the matching cars with a price, {@code null} if none has one.
+     */
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(Double averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    /**
+     * @return the number of matching cars without a price, which are in no bucket.
+     */
+    public long getWithoutPrice() {
+        return withoutPrice;
+    }
+
+    public void setWithoutPrice(long withoutPrice) {
+        this.withoutPrice = withoutPrice;
+    }
+
+    /**
+     * @return the number of matching cars per colour, the most frequent first.
+     */
+    public List<ColourCount> getColours() {
+        return colours;
+    }
+
+    public void setColours(List<ColourCount> colours) {
+        this.colours = colours;
+    }
+
+    /**
+     * @return the number of matching cars per price bucket, in ascending order of price.
+     */
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "CarFacetsDTO{" +
+            "count=" +
+            count +
+            ", minPrice=" +
+            minPrice +
+            ", maxPrice=" +
+            maxPrice +
+            ", averagePrice=" +
+            averagePrice +
+            ", withoutPrice=" +
+            withoutPrice +
+            ", colours=" +
+            colours +
+            ", priceBuckets=" +
+            priceBuckets +
+            "}"
+        );
+    }
+
+    /**
+     * The number of cars of a colour, {@code null} for the cars without one.
+     */
+    public static class ColourCount implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String colour;
+
+        private long count;
+
+        public ColourCount() {}
+
+        public ColourCount(String colour, long count) {
+            this.colour = colour;
+            this.count = count;
+        }
+
+        public String getColour() {
+            return colour;
+        }
+
+        public void setColour(String colour) {
+            this.colour = colour;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return "ColourCount{" + "colour='" + colour + "'" + ", count=" + count + "}";
+        }
+    }
+
+    /**
+     * The number of cars priced from {@code from}, inclusive, to {@code to}, exclusive, a {@code null} bound being
+     * unbounded.
+     */
+    public static class PriceBucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Integer from;
+
+        private Integer to;
+
+        private long count;
+
+        public PriceBucket() {}
+
+        public PriceBucket(Integer from, Integer to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public Integer getFrom() {
+            return from;
+        }
+
+        public void setFrom(Integer from) {
+            this.from = from;
+        }
+
+        public Integer getTo() {
+            return to;
+        }
+
+        public void setTo(Integer to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return "PriceBucket{" + "from=" + from + ", to=" + to + ", count=" + count + "}";
+        }
+    }
+}
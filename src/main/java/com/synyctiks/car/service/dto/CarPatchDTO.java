@@ -0,0 +1,80 @@
+package com.synyctiks.car.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import org.openapitools.jackson.nullable.JsonNullable;
+
+/**
+ * A JSON merge patch of the {@link com.synyctiks.car.domain.Car} entity: fields absent from the patch are
+ * {@link JsonNullable#undefined() undefined} and left unchanged, fields set to {@code null} are cleared.
+ */
+public class CarPatchDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private JsonNullable<String> name = JsonNullable.undefined();
+
+    private JsonNullable<String> colour = JsonNullable.undefined();
+
+    private JsonNullable<Integer> price = JsonNullable.undefined();
+
+    /**
+     * Not serialized: the version is exchanged in the {@code ETag} and {@code If-Match} headers.
+     */
+    @JsonIgnore
+    private Long version;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public JsonNullable<String> getName() {
+        return name;
+    }
+
+    public void setName(JsonNullable<String> name) {
+        this.name = name;
+    }
+
+    public JsonNullable<String> getColour() {
+        return colour;
+    }
+
+    public void setColour(JsonNullable<String> colour) {
+        this.colour = colour;
+    }
+
+    public JsonNullable<Integer> getPrice() {
+        return price;
+    }
+
+    public void setPrice(JsonNullable<Integer> price) {
+        this.price = price;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarPatchDTO{" +
+            "id=" + getId() +
+            ", name=" + getName() +
+            ", colour=" + getColour() +
+            ", price=" + getPrice() +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -1,16 +1,23 @@
 package com.synyctiks.car.service.impl;
 
 import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.repository.CarJdbcRepository;
 import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.CarChangedEvent;
 import com.synyctiks.car.service.CarService;
 import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarPatchDTO;
 import com.synyctiks.car.service.mapper.CarMapper;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import org.openapitools.jackson.nullable.JsonNullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,11 +32,22 @@ public class CarServiceImpl implements CarService {
 
     private final CarRepository carRepository;
 
+    private final CarJdbcRepository carJdbcRepository;
+
     private final CarMapper carMapper;
 
-    public CarServiceImpl(CarRepository carRepository, CarMapper carMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CarServiceImpl(
+        CarRepository carRepository,
+        CarJdbcRepository carJdbcRepository,
+        CarMapper carMapper,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.carRepository = carRepository;
+        this.carJdbcRepository = carJdbcRepository;
         this.carMapper = carMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -37,37 +55,41 @@ public class CarServiceImpl implements CarService {
         log.debug("Request to save Car : {}", carDTO);
         Car car = carMapper.toEntity(carDTO);
         car = carRepository.save(car);
+        publishChanged(car.getId());
         return carMapper.toDto(car);
     }
 
     @Override
-    public CarDTO update(CarDTO carDTO) {
+    public Optional<CarDTO> update(CarDTO carDTO) {
         log.debug("Request to update Car : {}", carDTO);
         Car car = carMapper.toEntity(carDTO);
-        car = carRepository.save(car);
-        return carMapper.toDto(car);
+        return updated(carJdbcRepository.update(car), car.getId(), car.getVersion());
     }
 
     @Override
-    public Optional<CarDTO> partialUpdate(CarDTO carDTO) {
-        log.debug("Request to partially update Car : {}", carDTO);
-
-        return carRepository
-            .findById(carDTO.getId())
-            .map(existingCar -> {
-                carMapper.partialUpdate(existingCar, carDTO);
-
-                return existingCar;
-            })
-            .map(carRepository::save)
-            .map(carMapper::toDto);
+    public Optional<CarDTO> partialUpdate(CarPatchDTO carPatchDTO) {
+        log.debug("Request to partially update Car : {}", carPatchDTO);
+        Map<String, Object> columns = new HashMap<>();
+        putIfPresent(columns, "name", carPatchDTO.getName());
+        putIfPresent(columns, "colour", carPatchDTO.getColour());
+        putIfPresent(columns, "price", carPatchDTO.getPrice());
+        if (columns.isEmpty()) {
+            // Nothing to write: return the car as it is
+            Optional<Car> current = carRepository.findById(carPatchDTO.getId());
+            if (current.isPresent() && carPatchDTO.getVersion() != null && !carPatchDTO.getVersion().equals(current.get().getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Car.class, carPatchDTO.getId());
+            }
+            return current.map(carMapper::toDto);
+        }
+        Optional<Car> updated = carJdbcRepository.updateColumns(carPatchDTO.getId(), columns, carPatchDTO.getVersion());
+        return updated(updated, carPatchDTO.getId(), carPatchDTO.getVersion());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CarDTO> findAll() {
         log.debug("Request to get all Cars");
-        return carRepository.findAll().stream().map(carMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+        return carMapper.toDto(carRepository.findAll());
     }
 
     @Override
@@ -81,5 +103,27 @@ public class CarServiceImpl implements CarService {
     public void delete(Long id) {
         log.debug("Request to delete Car : {}", id);
         carRepository.deleteById(id);
+        publishChanged(id);
+    }
+
+    private static void putIfPresent(Map<String, Object> columns, String column, JsonNullable<?> value) {
+        if (value.isPresent()) {
+            columns.put(column, value.get());
+        }
+    }
+
+    /**
+     * Map the car updated at a version, or else tell whether it is missing or no longer at that version.
+     */
+    private Optional<CarDTO> updated(Optional<Car> updated, Long id, Long version) {
+        if (updated.isEmpty() && version != null && carRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Car.class, id);
+        }
+        updated.ifPresent(car -> publishChanged(car.getId()));
+        return updated.map(carMapper::toDto);
+    }
+
+    private void publishChanged(Long id) {
+        eventPublisher.publishEvent(new CarChangedEvent(Collections.singletonList(id)));
     }
 }
@@ -8,4 +8,21 @@ import org.mapstruct.*;
  * Mapper for the entity {@link Car} and its DTO {@link CarDTO}.
  */
 @Mapper(componentModel = "spring")
-public interface CarMapper extends EntityMapper<CarDTO, Car> {}
+public interface CarMapper extends EntityMapper<CarDTO, Car> {
+    /**
+     * Copy all the fields of the DTO, including {@code null} ones, to an existing entity.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void update(@MappingTarget Car entity, CarDTO dto);
+
+    /**
+     * Copy the non-{@code null} fields of the DTO to an existing entity, but for its version, which only Hibernate
+     * changes.
+     */
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Car entity, CarDTO dto);
+}
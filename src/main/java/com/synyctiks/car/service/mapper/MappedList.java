@@ -0,0 +1,52 @@
+package com.synyctiks.car.service.mapper;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Read-only view of a list mapping each element when it is read, rather than into a new list up front.
+ * <p>
+ * Lists of DTOs returned to be serialized are read once, element by element, so each DTO is only allocated while it
+ * is written, and no array of all the DTOs is. Elements are mapped again each time they are read, so the view is not
+ * meant to be read more than once, nor to map elements which may still change before it is read.
+ *
+ * @param <S> the type of the elements of the source list.
+ * @param <T> the type of the mapped elements.
+ */
+public final class MappedList<S, T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<S> source;
+
+    private final Function<? super S, ? extends T> mapper;
+
+    private MappedList(List<S> source, Function<? super S, ? extends T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param source the list to map, which must support random access.
+     * @param mapper the mapping of each element.
+     * @param <S> the type of the elements of the source list.
+     * @param <T> the type of the mapped elements.
+     * @return the mapped view of the list.
+     */
+    public static <S, T> List<T> of(List<S> source, Function<? super S, ? extends T> mapper) {
+        if (!(source instanceof RandomAccess)) {
+            throw new IllegalArgumentException("Cannot map a list without random access");
+        }
+        return new MappedList<>(source, mapper);
+    }
+
+    @Override
+    public T get(int index) {
+        return mapper.apply(source.get(index));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+}
@@ -0,0 +1,548 @@
+package com.synyctiks.car.service.readmodel;
+
+import com.synyctiks.car.service.CarFacetsAccumulator;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import org.springframework.data.domain.Sort;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Cars stored column by column: ids and prices as primitive arrays, with a bitmap of the null prices, and names and
+ * colours as codes into dictionaries of their distinct values.
+ * <p>
+ * Criteria are evaluated as scans of the columns they filter, narrowing a bitmap of the matching rows one 64-row word
+ * at a time, so that rows already excluded are skipped. String filters are evaluated once per distinct value, then
+ * looked up by code. Scans of large stores are split by words across the cores.
+ * <p>
+ * Filters behave like the specifications built by {@link tech.jhipster.service.QueryService}: a null value never
+ * matches a filter on the value, {@code contains} is case-insensitive, and {@code equals} is not.
+ * <p>
+ * Each row keeps the version of the car it was read at, so that cars read concurrently can be stored in any order, an
+ * older version of a car never replacing a newer one. Rows of deleted cars are only marked as such, until the store is
+ * {@link #compact() compacted}, and their ids are remembered, so that a car read before it was deleted is not stored
+ * again, ids never being reused.
+ * Not thread-safe, see {@link CarReadModel}.
+ */
+final class CarColumnStore {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private long[] ids;
+
+    private long[] versions;
+
+    private int[] prices;
+
+    private long[] nullPrices;
+
+    private int[] nameCodes;
+
+    private int[] colourCodes;
+
+    private long[] liveRows;
+
+    private int rows;
+
+    private int liveRowCount;
+
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    private final Set<Long> deletedIds = new HashSet<>();
+
+    private final Dictionary names = new Dictionary();
+
+    private final Dictionary colours = new Dictionary();
+
+    CarColumnStore() {
+        this(MIN_CAPACITY);
+    }
+
+    CarColumnStore(int capacity) {
+        int size = Math.max(MIN_CAPACITY, capacity);
+        ids = new long[size];
+        versions = new long[size];
+        prices = new int[size];
+        nameCodes = new int[size];
+        colourCodes = new int[size];
+        nullPrices = new long[words(size)];
+        liveRows = new long[words(size)];
+    }
+
+    /**
+     * Insert a car, or update it if its id is already stored at an older version.
+     *
+     * @return whether the car was stored, rather than left as it was because it is deleted or stored at this version or
+     * a newer one.
+     */
+    boolean upsert(long id, long version, String name, String colour, Integer price) {
+        Integer existingRow = rowById.get(id);
+        if (existingRow != null ? versions[existingRow] >= version : deletedIds.contains(id)) {
+            return false;
+        }
+        int row;
+        if (existingRow == null) {
+            row = rows++;
+            ensureCapacity(rows);
+            rowById.put(id, row);
+            setBit(liveRows, row, true);
+            liveRowCount++;
+        } else {
+            row = existingRow;
+        }
+        ids[row] = id;
+        versions[row] = version;
+        nameCodes[row] = names.encode(name);
+        colourCodes[row] = colours.encode(colour);
+        prices[row] = price == null ? 0 : price;
+        setBit(nullPrices, row, price == null);
+        return true;
+    }
+
+    void delete(long id) {
+        deletedIds.add(id);
+        Integer row = rowById.remove(id);
+        if (row != null) {
+            setBit(liveRows, row, false);
+            liveRowCount--;
+        }
+    }
+
+    int size() {
+        return liveRowCount;
+    }
+
+    /**
+     * @return whether enough rows are deleted for compacting to pay off.
+     */
+    boolean needsCompaction() {
+        return rows - liveRowCount > Math.max(MIN_CAPACITY, rows / 4);
+    }
+
+    /**
+     * @return a copy of this store holding only the live rows, with dictionaries of the values still in use, and the
+     * ids of the deleted cars.
+     */
+    CarColumnStore compact() {
+        CarColumnStore compacted = new CarColumnStore(liveRowCount + liveRowCount / 4);
+        forEachRow(
+            liveRows,
+            row -> compacted.upsert(ids[row], versions[row], names.decode(nameCodes[row]), colours.decode(colourCodes[row]), price(row))
+        );
+        compacted.deletedIds.addAll(deletedIds);
+        return compacted;
+    }
+
+    /**
+     * @return the bitmap of the rows matching the criteria.
+     */
+    long[] match(CarCriteria criteria) {
+        long[] matches = Arrays.copyOf(liveRows, words(rows));
+        if (criteria == null) {
+            return matches;
+        }
+        if (criteria.getId() != null) {
+            LongPredicate id = longPredicate(criteria.getId());
+            retain(matches, row -> id.test(ids[row]));
+        }
+        if (criteria.getName() != null) {
+            retain(matches, stringPredicate(criteria.getName(), names, nameCodes));
+        }
+        if (criteria.getColour() != null) {
+            retain(matches, stringPredicate(criteria.getColour(), colours, colourCodes));
+        }
+        if (criteria.getPrice() != null) {
+            retain(matches, pricePredicate(criteria.getPrice()));
+        }
+        return matches;
+    }
+
+    static long count(long[] matches) {
+        long count = 0;
+        for (long word : matches) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return the order of rows for the sort, or {@code null} if it cannot be evaluated like the database would, such as
+     * for sorts on strings, which depend on the collation of the database.
+     */
+    Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> comparator = null;
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> property;
+            if ("id".equals(order.getProperty())) {
+                property = (left, right) -> Long.compare(ids[left], ids[right]);
+                byId = true;
+            } else if ("price".equals(order.getProperty()) && order.getNullHandling() == Sort.NullHandling.NATIVE) {
+                // PostgreSQL sorts nulls as larger than any value
+                property = Comparator.comparing(this::price, Comparator.nullsLast(Comparator.naturalOrder()));
+            } else {
+                return null;
+            }
+            property = order.isAscending() ? property : property.reversed();
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        if (!byId) {
+            Comparator<Integer> id = (left, right) -> Long.compare(ids[left], ids[right]);
+            comparator = comparator == null ? id : comparator.thenComparing(id);
+        }
+        return comparator;
+    }
+
+    /**
+     * @return the rows matching, in the order of the comparator, from the offset and up to the limit.
+     */
+    List<Integer> page(long[] matches, Comparator<Integer> comparator, long offset, int limit) {
+        long count = count(matches);
+        if (offset >= count || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min(count, offset + limit);
+        List<Integer> sorted;
+        if (end < count / 2) {
+            // Keep the first rows only, the head of the heap being the last of them
+            PriorityQueue<Integer> first = new PriorityQueue<>(end + 1, comparator.reversed());
+            forEachRow(
+                matches,
+                row -> {
+                    first.add(row);
+                    if (first.size() > end) {
+                        first.poll();
+                    }
+                }
+            );
+            sorted = new ArrayList<>(first);
+        } else {
+            sorted = new ArrayList<>((int) count);
+            forEachRow(matches, sorted::add);
+        }
+        sorted.sort(comparator);
+        return sorted.subList((int) offset, end);
+    }
+
+    /**
+     * Add the rows matching to the facets, grouped by colour and price bucket.
+     */
+    void addFacets(long[] matches, List<Integer> bounds, CarFacetsAccumulator facets) {
+        int buckets = bounds.size() + 2;
+        int groups = (colours.size() + 1) * buckets;
+        long[] counts = new long[groups];
+        long[] sums = new long[groups];
+        int[] mins = new int[groups];
+        int[] maxs = new int[groups];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxs, Integer.MIN_VALUE);
+        forEachRow(
+            matches,
+            row -> {
+                Integer price = price(row);
+                // Offset by one, so that the cars without a colour and the cars without a price have the first groups
+                int group = (colourCodes[row] + 1) * buckets + CarFacetsAccumulator.bucketOf(bounds, price) + 1;
+                counts[group]++;
+                if (price != null) {
+                    sums[group] += price;
+                    mins[group] = Math.min(mins[group], price);
+                    maxs[group] = Math.max(maxs[group], price);
+                }
+            }
+        );
+        for (int group = 0; group < groups; group++) {
+            if (counts[group] > 0) {
+                boolean priced = mins[group] <= maxs[group];
+                facets.add(
+                    colours.decode(group / buckets - 1),
+                    group % buckets - 1,
+                    counts[group],
+                    priced ? mins[group] : null,
+                    priced ? maxs[group] : null,
+                    sums[group]
+                );
+            }
+        }
+    }
+
+    CarDTO toDto(int row) {
+        CarDTO carDTO = new CarDTO();
+        carDTO.setId(ids[row]);
+        carDTO.setVersion(versions[row]);
+        carDTO.setName(names.decode(nameCodes[row]));
+        carDTO.setColour(colours.decode(colourCodes[row]));
+        carDTO.setPrice(price(row));
+        return carDTO;
+    }
+
+    private Integer price(int row) {
+        return getBit(nullPrices, row) ? null : prices[row];
+    }
+
+    private IntPredicate pricePredicate(IntegerFilter filter) {
+        IntPredicate value = intPredicate(filter);
+        boolean filtersValue = filtersValue(filter);
+        Boolean specified = filter.getSpecified();
+        return row -> {
+            boolean isNull = getBit(nullPrices, row);
+            if (specified != null && specified == isNull) {
+                return false;
+            }
+            return isNull ? !filtersValue : value.test(prices[row]);
+        };
+    }
+
+    private static IntPredicate stringPredicate(StringFilter filter, Dictionary dictionary, int[] codes) {
+        boolean[] matchingCodes = dictionary.matching(stringValuePredicate(filter));
+        boolean filtersValue = filtersValue(filter) || filter.getContains() != null || filter.getDoesNotContain() != null;
+        Boolean specified = filter.getSpecified();
+        return row -> {
+            int code = codes[row];
+            boolean isNull = code < 0;
+            if (specified != null && specified == isNull) {
+                return false;
+            }
+            return isNull ? !filtersValue : matchingCodes[code];
+        };
+    }
+
+    private static LongPredicate longPredicate(LongFilter filter) {
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            // ids are never null
+            return value -> false;
+        }
+        LongPredicate predicate = value -> true;
+        if (filter.getEquals() != null) {
+            long equals = filter.getEquals();
+            predicate = predicate.and(value -> value == equals);
+        }
+        if (filter.getNotEquals() != null) {
+            long notEquals = filter.getNotEquals();
+            predicate = predicate.and(value -> value != notEquals);
+        }
+        if (filter.getIn() != null) {
+            long[] in = filter.getIn().stream().mapToLong(Long::longValue).sorted().toArray();
+            predicate = predicate.and(value -> Arrays.binarySearch(in, value) >= 0);
+        }
+        if (filter.getNotIn() != null) {
+            long[] notIn = filter.getNotIn().stream().mapToLong(Long::longValue).sorted().toArray();
+            predicate = predicate.and(value -> Arrays.binarySearch(notIn, value) < 0);
+        }
+        if (filter.getGreaterThan() != null) {
+            long greaterThan = filter.getGreaterThan();
+            predicate = predicate.and(value -> value > greaterThan);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            long greaterThanOrEqual = filter.getGreaterThanOrEqual();
+            predicate = predicate.and(value -> value >= greaterThanOrEqual);
+        }
+        if (filter.getLessThan() != null) {
+            long lessThan = filter.getLessThan();
+            predicate = predicate.and(value -> value < lessThan);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            long lessThanOrEqual = filter.getLessThanOrEqual();
+            predicate = predicate.and(value -> value <= lessThanOrEqual);
+        }
+        return predicate;
+    }
+
+    private static IntPredicate intPredicate(IntegerFilter filter) {
+        IntPredicate predicate = value -> true;
+        if (filter.getEquals() != null) {
+            int equals = filter.getEquals();
+            predicate = predicate.and(value -> value == equals);
+        }
+        if (filter.getNotEquals() != null) {
+            int notEquals = filter.getNotEquals();
+            predicate = predicate.and(value -> value != notEquals);
+        }
+        if (filter.getIn() != null) {
+            int[] in = filter.getIn().stream().mapToInt(Integer::intValue).sorted().toArray();
+            predicate = predicate.and(value -> Arrays.binarySearch(in, value) >= 0);
+        }
+        if (filter.getNotIn() != null) {
+            int[] notIn = filter.getNotIn().stream().mapToInt(Integer::intValue).sorted().toArray();
+            predicate = predicate.and(value -> Arrays.binarySearch(notIn, value) < 0);
+        }
+        if (filter.getGreaterThan() != null) {
+            int greaterThan = filter.getGreaterThan();
+            predicate = predicate.and(value -> value > greaterThan);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            int greaterThanOrEqual = filter.getGreaterThanOrEqual();
+            predicate = predicate.and(value -> value >= greaterThanOrEqual);
+        }
+        if (filter.getLessThan() != null) {
+            int lessThan = filter.getLessThan();
+            predicate = predicate.and(value -> value < lessThan);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            int lessThanOrEqual = filter.getLessThanOrEqual();
+            predicate = predicate.and(value -> value <= lessThanOrEqual);
+        }
+        return predicate;
+    }
+
+    private static Predicate<String> stringValuePredicate(StringFilter filter) {
+        Predicate<String> predicate = value -> true;
+        if (filter.getEquals() != null) {
+            predicate = predicate.and(filter.getEquals()::equals);
+        }
+        if (filter.getNotEquals() != null) {
+            predicate = predicate.and(value -> !filter.getNotEquals().equals(value));
+        }
+        if (filter.getIn() != null) {
+            predicate = predicate.and(filter.getIn()::contains);
+        }
+        if (filter.getNotIn() != null) {
+            predicate = predicate.and(value -> !filter.getNotIn().contains(value));
+        }
+        if (filter.getContains() != null) {
+            String contains = filter.getContains().toUpperCase(Locale.ROOT);
+            predicate = predicate.and(value -> value.toUpperCase(Locale.ROOT).contains(contains));
+        }
+        if (filter.getDoesNotContain() != null) {
+            String doesNotContain = filter.getDoesNotContain().toUpperCase(Locale.ROOT);
+            predicate = predicate.and(value -> !value.toUpperCase(Locale.ROOT).contains(doesNotContain));
+        }
+        return predicate;
+    }
+
+    private static boolean filtersValue(Filter<?> filter) {
+        if (filter.getEquals() != null || filter.getNotEquals() != null || filter.getIn() != null || filter.getNotIn() != null) {
+            return true;
+        }
+        if (filter instanceof RangeFilter) {
+            RangeFilter<?> range = (RangeFilter<?>) filter;
+            return (
+                range.getGreaterThan() != null ||
+                range.getGreaterThanOrEqual() != null ||
+                range.getLessThan() != null ||
+                range.getLessThanOrEqual() != null
+            );
+        }
+        return false;
+    }
+
+    /**
+     * Clear the bits of the rows not matching the predicate, scanning the words in parallel on large stores.
+     */
+    private void retain(long[] matches, IntPredicate predicate) {
+        IntStream words = IntStream.range(0, matches.length);
+        if (rows >= PARALLEL_THRESHOLD) {
+            words = words.parallel();
+        }
+        words.forEach(index -> {
+            long word = matches[index];
+            long retained = word;
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                if (!predicate.test(index * Long.SIZE + bit)) {
+                    retained &= ~(1L << bit);
+                }
+                word &= word - 1;
+            }
+            matches[index] = retained;
+        });
+    }
+
+    private static void forEachRow(long[] bitmap, IntConsumer action) {
+        for (int index = 0; index < bitmap.length; index++) {
+            long word = bitmap[index];
+            while (word != 0) {
+                action.accept(index * Long.SIZE + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int size = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, size);
+            versions = Arrays.copyOf(versions, size);
+            prices = Arrays.copyOf(prices, size);
+            nameCodes = Arrays.copyOf(nameCodes, size);
+            colourCodes = Arrays.copyOf(colourCodes, size);
+            nullPrices = Arrays.copyOf(nullPrices, words(size));
+            liveRows = Arrays.copyOf(liveRows, words(size));
+        }
+    }
+
+    private static int words(int rows) {
+        return (rows + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static boolean getBit(long[] bitmap, int row) {
+        return (bitmap[row / Long.SIZE] & (1L << row)) != 0;
+    }
+
+    private static void setBit(long[] bitmap, int row, boolean value) {
+        if (value) {
+            bitmap[row / Long.SIZE] |= 1L << row;
+        } else {
+            bitmap[row / Long.SIZE] &= ~(1L << row);
+        }
+    }
+
+    /**
+     * Distinct values of a string column, a value being stored once and referred to by its code.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(
+                value,
+                newValue -> {
+                    values.add(newValue);
+                    return values.size() - 1;
+                }
+            );
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        boolean[] matching(Predicate<String> predicate) {
+            boolean[] matching = new boolean[values.size()];
+            for (int code = 0; code < matching.length; code++) {
+                matching[code] = predicate.test(values.get(code));
+            }
+            return matching;
+        }
+    }
+}
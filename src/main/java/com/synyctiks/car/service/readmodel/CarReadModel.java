@@ -0,0 +1,411 @@
+package com.synyctiks.car.service.readmodel;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.repository.PrimaryReads;
+import com.synyctiks.car.service.CarChangedEvent;
+import com.synyctiks.car.service.CarFacetsAccumulator;
+import com.synyctiks.car.service.Versioned;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarFacetsDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory columnar copy of the {@link Car} table, answering criteria queries and counts without the database.
+ * <p>
+ * The copy is loaded in the background once the application is ready, and kept in sync with the writes: the cars of
+ * each {@link CarChangedEvent} are read again once their transaction commits, and their ids are sent to the other
+ * instances of the service over a Hazelcast topic, for them to do the same.
+ * <p>
+ * Until the copy is loaded, or if it fails to be kept in sync, queries return nothing and the caller falls back to the
+ * database, and the copy is loaded again after {@code application.read-model.reload-delay-seconds}.
+ * <p>
+ * Queries hold a read lock, and refreshes a write lock only once they have read the cars, which are stored by version,
+ * so that cars read concurrently are applied in any order.
+ * <p>
+ * Lists are versioned by the load of the copy and the number of refreshes applied to it since, rather than by the
+ * {@link com.synyctiks.car.service.CarTableVersion}, which the refreshes sent over the topic may lag behind.
+ */
+@Service
+public class CarReadModel {
+
+    private static final String TOPIC = "car-read-model";
+
+    private final Logger log = LoggerFactory.getLogger(CarReadModel.class);
+
+    private final CarRepository carRepository;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectProvider<TaskScheduler> taskScheduler;
+
+    private final AtomicBoolean loadScheduled = new AtomicBoolean();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CarColumnStore store = new CarColumnStore();
+
+    private boolean loading;
+
+    private final Set<Long> pendingIds = new HashSet<>();
+
+    private volatile boolean warm;
+
+    private String loadId;
+
+    private long appliedRefreshes;
+
+    private ITopic<long[]> topic;
+
+    public CarReadModel(
+        CarRepository carRepository,
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        ObjectProvider<TaskScheduler> taskScheduler
+    ) {
+        this.carRepository = carRepository;
+        this.hazelcastInstance = hazelcastInstance;
+        this.applicationProperties = applicationProperties;
+        this.taskScheduler = taskScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load all the cars, once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!applicationProperties.getReadModel().isEnabled()) {
+            return;
+        }
+        topic = hazelcastInstance.getTopic(TOPIC);
+        topic.addMessageListener(this::onMessage);
+        load();
+    }
+
+    /**
+     * Refresh the cars changed by a transaction, once it is committed.
+     *
+     * @param event the ids of the changed cars.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (!applicationProperties.getReadModel().isEnabled()) {
+            return;
+        }
+        refresh(event.getIds());
+        if (topic != null) {
+            topic.publish(event.getIds().stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    /**
+     * @return whether queries are answered, rather than left to the database.
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Get the version of the cars the lists are answered from, which changes with every refresh applied.
+     *
+     * @param pageable the pagination information of the list.
+     * @return the version, or nothing if the model is not loaded or if the list is sorted by properties other than the
+     * id and the price.
+     */
+    public Optional<String> getVersion(Pageable pageable) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (!warm || store.comparator(pageable.isPaged() ? pageable.getSort() : Sort.unsorted()) == null) {
+                return Optional.empty();
+            }
+            return Optional.of(version());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the cars matching the criteria.
+     *
+     * @param criteria the criteria.
+     * @return the number of matching cars, or nothing if the model is not loaded.
+     */
+    public OptionalLong countByCriteria(CarCriteria criteria) {
+        if (!warm) {
+            return OptionalLong.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (!warm) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(CarColumnStore.count(store.match(criteria)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the cars matching the criteria.
+     *
+     * @param criteria the criteria.
+     * @param pageable the pagination information, all the cars by id when unpaged.
+     * @return the page, with the version of the cars it was read at, or nothing if the model is not loaded or if the
+     * request is sorted by properties other than the id and the price.
+     */
+    public Optional<Versioned<Page<CarDTO>>> findByCriteria(CarCriteria criteria, Pageable pageable) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Comparator<Integer> comparator = store.comparator(pageable.isPaged() ? pageable.getSort() : Sort.unsorted());
+            if (!warm || comparator == null) {
+                return Optional.empty();
+            }
+            long[] matches = store.match(criteria);
+            List<Integer> rows = pageable.isPaged()
+                ? store.page(matches, comparator, pageable.getOffset(), pageable.getPageSize())
+                : store.page(matches, comparator, 0, Integer.MAX_VALUE);
+            List<CarDTO> content = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                content.add(store.toDto(row));
+            }
+            return Optional.of(new Versioned<>(new PageImpl<>(content, pageable, CarColumnStore.count(matches)), version()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the facets of the cars matching the criteria.
+     *
+     * @param criteria the criteria.
+     * @param priceBucketBounds the bounds of the price buckets, in strictly ascending order.
+     * @return the facets, or nothing if the model is not loaded.
+     */
+    public Optional<CarFacetsDTO> facetsByCriteria(CarCriteria criteria, List<Integer> priceBucketBounds) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (!warm) {
+                return Optional.empty();
+            }
+            CarFacetsAccumulator facets = new CarFacetsAccumulator(priceBucketBounds);
+            store.addFacets(store.match(criteria), priceBucketBounds, facets);
+            return Optional.of(facets.toDto());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            warm = false;
+            pendingIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loading the Car read model");
+        try {
+            // From the primary, as the changes not yet replicated may have been published before the load began
+            CarColumnStore loaded = PrimaryReads.call(() ->
+                transactionTemplate.execute(status -> {
+                    CarColumnStore columns = new CarColumnStore();
+                    try (
+                        Stream<Car> cars = carRepository.streamAll(null, applicationProperties.getQuery().getStreamFetchSize())
+                    ) {
+                        cars.forEach(car -> columns.upsert(car.getId(), car.getVersion(), car.getName(), car.getColour(), car.getPrice()));
+                    }
+                    return columns;
+                })
+            );
+            // Read again the cars changed during the load, as it may have read them before they changed
+            for (Set<Long> ids = takePendingIds(loaded); !ids.isEmpty(); ids = takePendingIds(loaded)) {
+                loaded = apply(loaded, ids, read(ids));
+            }
+            log.info("Loaded {} Cars in the read model", loaded.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load the Car read model, queries will use the database: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                pendingIds.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            scheduleLoad();
+        }
+    }
+
+    /**
+     * Take the ids of the cars changed since they were last taken, or make the loaded cars the ones queried if there are
+     * none.
+     */
+    private Set<Long> takePendingIds(CarColumnStore loaded) {
+        lock.writeLock().lock();
+        try {
+            if (pendingIds.isEmpty()) {
+                store = loaded;
+                loadId = UUID.randomUUID().toString();
+                appliedRefreshes = 0;
+                loading = false;
+                warm = true;
+                return Set.of();
+            }
+            Set<Long> ids = new HashSet<>(pendingIds);
+            pendingIds.clear();
+            return ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load all the cars again after a delay, unless it is already scheduled.
+     */
+    private void scheduleLoad() {
+        TaskScheduler scheduler = taskScheduler.getIfAvailable();
+        if (scheduler == null) {
+            log.warn("Cannot schedule loading the Car read model again, queries will keep using the database");
+        } else if (loadScheduled.compareAndSet(false, true)) {
+            Instant start = Instant.now().plusSeconds(applicationProperties.getReadModel().getReloadDelaySeconds());
+            scheduler.schedule(
+                () -> {
+                    loadScheduled.set(false);
+                    load();
+                },
+                start
+            );
+        }
+    }
+
+    private void onMessage(Message<long[]> message) {
+        if (message.getPublishingMember() == null || !message.getPublishingMember().localMember()) {
+            refresh(Arrays.stream(message.getMessageObject()).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty() || !shouldRefresh(ids)) {
+            return;
+        }
+        List<Car> cars;
+        try {
+            // Read without the lock, so that queries do not wait on the database
+            cars = read(ids);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the Car read model, queries will use the database: {}", e.getMessage());
+            warm = false;
+            scheduleLoad();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (shouldRefresh(ids)) {
+                store = apply(store, ids, cars);
+                appliedRefreshes++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Leave the cars to be read again once the load in progress completes, if any.
+     *
+     * @return whether the cars are to be refreshed now, the model being warm.
+     */
+    private boolean shouldRefresh(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                pendingIds.addAll(ids);
+                return false;
+            }
+            return warm;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the version of the cars queried, to be read under the lock.
+     */
+    private String version() {
+        return loadId + "." + appliedRefreshes;
+    }
+
+    /**
+     * Read the cars from the primary rather than from a replica that may lag behind it.
+     */
+    private List<Car> read(Collection<Long> ids) {
+        return PrimaryReads.call(() -> transactionTemplate.execute(status -> carRepository.findAllById(ids)));
+    }
+
+    /**
+     * Store the cars read, and delete the others, unless the store holds newer versions of them.
+     *
+     * @return the store, compacted if needed.
+     */
+    private static CarColumnStore apply(CarColumnStore columns, Collection<Long> ids, List<Car> cars) {
+        Set<Long> deletedIds = new HashSet<>(ids);
+        for (Car car : cars) {
+            columns.upsert(car.getId(), car.getVersion(), car.getName(), car.getColour(), car.getPrice());
+            deletedIds.remove(car.getId());
+        }
+        deletedIds.forEach(columns::delete);
+        return columns.needsCompaction() ? columns.compact() : columns;
+    }
+}
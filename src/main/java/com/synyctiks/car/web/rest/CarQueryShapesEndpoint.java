@@ -0,0 +1,108 @@
+package com.synyctiks.car.web.rest;
+
+import com.synyctiks.car.service.CarIndexRecommendation;
+import com.synyctiks.car.service.CarQueryShapeStatistics;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint listing the shapes of the queries on cars the most time is spent on, at
+ * {@code /management/carqueryshapes}, with the index recommended for each of them as a Liquibase changeset.
+ * <p>
+ * A {@code DELETE} resets the statistics.
+ */
+@Component
+@Endpoint(id = "carqueryshapes")
+public class CarQueryShapesEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final CarQueryShapeStatistics carQueryShapeStatistics;
+
+    public CarQueryShapesEndpoint(CarQueryShapeStatistics carQueryShapeStatistics) {
+        this.carQueryShapeStatistics = carQueryShapeStatistics;
+    }
+
+    @ReadOperation
+    public List<QueryShapeDescriptor> shapes(@Nullable Integer top) {
+        return carQueryShapeStatistics
+            .getTop(top == null ? DEFAULT_TOP : Math.max(0, top))
+            .stream()
+            .map(QueryShapeDescriptor::new)
+            .collect(Collectors.toList());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        carQueryShapeStatistics.reset();
+    }
+
+    /**
+     * The statistics of a query shape, with times in milliseconds.
+     */
+    public static class QueryShapeDescriptor {
+
+        private final String shape;
+
+        private final long count;
+
+        private final double total;
+
+        private final double mean;
+
+        private final double max;
+
+        private final String recommendedIndex;
+
+        private final String changeSet;
+
+        public QueryShapeDescriptor(CarQueryShapeStatistics.Statistics statistics) {
+            this.shape = statistics.getShape().toString();
+            this.count = statistics.getCount();
+            this.total = toMillis(statistics.getTotalNanos());
+            this.mean = count == 0 ? 0 : total / count;
+            this.max = toMillis(statistics.getMaxNanos());
+            CarIndexRecommendation recommendation = statistics.getShape().recommendIndex().orElse(null);
+            this.recommendedIndex = recommendation == null ? null : recommendation.getName();
+            this.changeSet = recommendation == null ? null : recommendation.getChangeSet();
+        }
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotal() {
+            return total;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public String getRecommendedIndex() {
+            return recommendedIndex;
+        }
+
+        public String getChangeSet() {
+            return changeSet;
+        }
+    }
+}
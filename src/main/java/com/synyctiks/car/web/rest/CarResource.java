@@ -1,26 +1,74 @@
 package com.synyctiks.car.web.rest;
 
-import com.synyctiks.car.repository.CarRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.repository.PrimaryReads;
+import com.synyctiks.car.service.CarBulkService;
+import com.synyctiks.car.service.CarKeysetCursor;
 import com.synyctiks.car.service.CarQueryService;
 import com.synyctiks.car.service.CarService;
+import com.synyctiks.car.service.CarTableVersion;
+import com.synyctiks.car.service.Versioned;
 import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarBulkResultDTO;
+import com.synyctiks.car.service.dto.CarCountDTO;
 import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarFacetsDTO;
+import com.synyctiks.car.service.dto.CarPatchDTO;
 import com.synyctiks.car.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.synyctiks.car.domain.Car}.
+ * <p>
+ * A car is returned with a strong {@code ETag} of its version, which updates can require with {@code If-Match}, and
+ * lists with an {@code ETag} of the version they were read at, that of the read model or else the
+ * {@link CarTableVersion}, see {@link CarQueryService#getListVersion}. {@code If-None-Match} is checked against the
+ * current version before reading the cars. Lists which may be read from a replica, which does not replicate the table
+ * version, carry no {@code ETag}. Counts are read from the primary database, see {@link PrimaryReads}, when they are
+ * cached under the table version.
+ * <p>
+ * Besides JSON, cars are read and written as Smile and CBOR, following the {@code Content-Type} and {@code Accept}
+ * headers, but for the newline-delimited JSON endpoints. The format of a response carrying an {@code ETag} is selected
+ * before it is written, for the {@code ETag} to differ from one format to another, as strong {@code ETag}s must, see
+ * {@link Format}.
  */
 @RestController
 @RequestMapping("/api")
@@ -30,39 +78,75 @@ public class CarResource {
 
     private static final String ENTITY_NAME = "carappCar";
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_SEEK_PAGE_SIZE = 2000;
+
+    /**
+     * Binary JSON, read and written as JSON is, for service to service calls, see {@code JacksonConfiguration}.
+     */
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CarService carService;
 
-    private final CarRepository carRepository;
-
     private final CarQueryService carQueryService;
 
-    public CarResource(CarService carService, CarRepository carRepository, CarQueryService carQueryService) {
+    private final CarBulkService carBulkService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectReader carReader;
+
+    private final ObjectReader idReader;
+
+    public CarResource(
+        CarService carService,
+        CarQueryService carQueryService,
+        CarBulkService carBulkService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
         this.carService = carService;
-        this.carRepository = carRepository;
         this.carQueryService = carQueryService;
+        this.carBulkService = carBulkService;
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
+        this.ndjsonWriter =
+            objectMapper
+                .writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.carReader = objectMapper.readerFor(CarDTO.class);
+        this.idReader = objectMapper.readerFor(Long.class);
     }
 
     /**
      * {@code POST  /cars} : Create a new car.
      *
      * @param carDTO the carDTO to create.
+     * @param request the request, whose {@code Accept} header selects the format of the response.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new carDTO, or with status {@code 400 (Bad Request)} if the car has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/cars")
-    public ResponseEntity<CarDTO> createCar(@RequestBody CarDTO carDTO) throws URISyntaxException {
+    public ResponseEntity<CarDTO> createCar(@RequestBody CarDTO carDTO, HttpServletRequest request) throws URISyntaxException {
         log.debug("REST request to save Car : {}", carDTO);
         if (carDTO.getId() != null) {
             throw new BadRequestAlertException("A new car cannot already have an ID", ENTITY_NAME, "idexists");
         }
         CarDTO result = carService.save(carDTO);
-        return ResponseEntity
+        ResponseEntity.BodyBuilder created = ResponseEntity
             .created(new URI("/api/cars/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
-            .body(result);
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()));
+        return tagged(created, Format.of(request), eTag(result)).body(result);
     }
 
     /**
@@ -70,14 +154,21 @@ public class CarResource {
      *
      * @param id the id of the carDTO to save.
      * @param carDTO the carDTO to update.
+     * @param ifMatch the {@code ETag}s the car must still have, if any.
+     * @param request the request, whose {@code Accept} header selects the format of the response.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated carDTO,
      * or with status {@code 400 (Bad Request)} if the carDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the car no longer matches {@code If-Match}, or is not found,
      * or with status {@code 500 (Internal Server Error)} if the carDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/cars/{id}")
-    public ResponseEntity<CarDTO> updateCar(@PathVariable(value = "id", required = false) final Long id, @RequestBody CarDTO carDTO)
-        throws URISyntaxException {
+    public ResponseEntity<CarDTO> updateCar(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody CarDTO carDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        HttpServletRequest request
+    ) throws URISyntaxException {
         log.debug("REST request to update Car : {}, {}", id, carDTO);
         if (carDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -86,62 +177,484 @@ public class CarResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!carRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null && !requireVersion(carDTO.getId(), ifMatch, carDTO::setVersion)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
-
-        CarDTO result = carService.update(carDTO);
-        return ResponseEntity
+        // The car is updated in a single statement, and found not to exist when no row is updated
+        Optional<CarDTO> result;
+        try {
+            result = carService.update(carDTO);
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (result.isEmpty()) {
+            return notFound(ifMatch);
+        }
+        ResponseEntity.BodyBuilder updated = ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, carDTO.getId().toString()))
-            .body(result);
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, carDTO.getId().toString()));
+        return tagged(updated, Format.of(request), eTag(result.get())).body(result.get());
     }
 
     /**
-     * {@code PATCH  /cars/:id} : Partial updates given fields of an existing car, field will ignore if it is null
+     * {@code PATCH  /cars/:id} : Partial updates given fields of an existing car, as a JSON merge patch: the fields
+     * present in the body are set, including to {@code null}, the others are left unchanged.
+     * <p>
+     * Only the columns of the fields present are updated, without reading the car first.
      *
      * @param id the id of the carDTO to save.
-     * @param carDTO the carDTO to update.
+     * @param carPatchDTO the patch of the car.
+     * @param ifMatch the {@code ETag}s the car must still have, if any.
+     * @param request the request, whose {@code Accept} header selects the format of the response.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated carDTO,
-     * or with status {@code 400 (Bad Request)} if the carDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the carDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid or the car is not found without {@code If-Match},
+     * or with status {@code 412 (Precondition Failed)} if the car no longer matches {@code If-Match}, or is not found,
      * or with status {@code 500 (Internal Server Error)} if the carDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
-    @PatchMapping(value = "/cars/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<CarDTO> partialUpdateCar(@PathVariable(value = "id", required = false) final Long id, @RequestBody CarDTO carDTO)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Car partially : {}, {}", id, carDTO);
-        if (carDTO.getId() == null) {
+    @PatchMapping(
+        value = "/cars/{id}",
+        consumes = { "application/json", "application/merge-patch+json", APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<CarDTO> partialUpdateCar(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody CarPatchDTO carPatchDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        HttpServletRequest request
+    ) throws URISyntaxException {
+        log.debug("REST request to partial update Car partially : {}, {}", id, carPatchDTO);
+        if (carPatchDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, carDTO.getId())) {
+        if (!Objects.equals(id, carPatchDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!carRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null && !requireVersion(carPatchDTO.getId(), ifMatch, carPatchDTO::setVersion)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
-
-        Optional<CarDTO> result = carService.partialUpdate(carDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, carDTO.getId().toString())
-        );
+        // The car is updated in a single statement, and found not to exist when no row is updated
+        Optional<CarDTO> result;
+        try {
+            result = carService.partialUpdate(carPatchDTO);
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (result.isEmpty()) {
+            return notFound(ifMatch);
+        }
+        ResponseEntity.BodyBuilder updated = ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, carPatchDTO.getId().toString()));
+        return tagged(updated, Format.of(request), eTag(result.get())).body(result.get());
     }
 
     /**
      * {@code GET  /cars} : get all the cars.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body.
+     * @param request the request, checked against the {@code ETag} of the cars.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 304 (Not Modified)} if no car changed since {@code If-None-Match}.
      */
     @GetMapping("/cars")
-    public ResponseEntity<List<CarDTO>> getAllCars(CarCriteria criteria) {
+    public ResponseEntity<List<CarDTO>> getAllCars(CarCriteria criteria, HttpServletRequest request) {
         log.debug("REST request to get Cars by criteria: {}", criteria);
-        List<CarDTO> entityList = carQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        Optional<Format> format = Format.of(request);
+        Optional<String> version = carQueryService.getListVersion(Pageable.unpaged());
+        if (isNotModified(request, format, version)) {
+            return notModified(format, version.get());
+        }
+        Versioned<List<CarDTO>> entityList = carQueryService.findByCriteria(criteria);
+        return okAtVersion(format, entityList).body(entityList.getContent());
+    }
+
+    /**
+     * {@code GET  /cars?page=} : get a page of the cars.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @param request the request, checked against the {@code ETag} of the cars.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 304 (Not Modified)} if no car changed since {@code If-None-Match}.
+     */
+    @GetMapping(value = "/cars", params = { "page", "!fields" })
+    public ResponseEntity<List<CarDTO>> getCarsPage(CarCriteria criteria, @ParameterObject Pageable pageable, HttpServletRequest request) {
+        log.debug("REST request to get a page of Cars by criteria: {}", criteria);
+        Optional<Format> format = Format.of(request);
+        Optional<String> version = carQueryService.getListVersion(pageable);
+        if (isNotModified(request, format, version)) {
+            return notModified(format, version.get());
+        }
+        Versioned<Page<CarDTO>> page = carQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page.getContent()
+        );
+        return okAtVersion(format, page).headers(headers).body(page.getContent().getContent());
+    }
+
+    /**
+     * {@code GET  /cars?fields=} : get the given fields of all the cars.
+     * <p>
+     * Only the requested columns are read, the cars are not loaded, and only the requested fields are serialized.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the fields to return, among {@code id}, {@code name}, {@code colour} and {@code price}.
+     * @param request the request, checked against the {@code ETag} of the cars.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of the fields of the cars in body,
+     * or with status {@code 400 (Bad Request)} if a field is unknown,
+     * or with status {@code 304 (Not Modified)} if no car changed since {@code If-None-Match}.
+     */
+    @GetMapping(value = "/cars", params = { "fields", "!page" })
+    public ResponseEntity<List<Map<String, Object>>> getAllCarFields(
+        CarCriteria criteria,
+        @RequestParam("fields") List<String> fields,
+        HttpServletRequest request
+    ) {
+        log.debug("REST request to get fields {} of Cars by criteria: {}", fields, criteria);
+        checkFields(fields);
+        Optional<Format> format = Format.of(request);
+        Optional<String> version = carQueryService.getFieldsVersion();
+        if (isNotModified(request, format, version)) {
+            return notModified(format, version.get());
+        }
+        Versioned<Page<Map<String, Object>>> rows = carQueryService.findFieldsByCriteria(criteria, fields, Pageable.unpaged());
+        return okAtVersion(format, rows).body(rows.getContent().getContent());
+    }
+
+    /**
+     * {@code GET  /cars?fields=&page=} : get the given fields of a page of the cars.
+     * <p>
+     * Only the requested columns are read, the cars are not loaded, and only the requested fields are serialized.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the fields to return, among {@code id}, {@code name}, {@code colour} and {@code price}.
+     * @param pageable the pagination information.
+     * @param request the request, checked against the {@code ETag} of the cars.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of the fields of the cars in body,
+     * or with status {@code 400 (Bad Request)} if a field is unknown,
+     * or with status {@code 304 (Not Modified)} if no car changed since {@code If-None-Match}.
+     */
+    @GetMapping(value = "/cars", params = { "fields", "page" })
+    public ResponseEntity<List<Map<String, Object>>> getCarFieldsPage(
+        CarCriteria criteria,
+        @RequestParam("fields") List<String> fields,
+        @ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
+        log.debug("REST request to get fields {} of a page of Cars by criteria: {}", fields, criteria);
+        checkFields(fields);
+        Optional<Format> format = Format.of(request);
+        Optional<String> version = carQueryService.getFieldsVersion();
+        if (isNotModified(request, format, version)) {
+            return notModified(format, version.get());
+        }
+        Versioned<Page<Map<String, Object>>> page = carQueryService.findFieldsByCriteria(criteria, fields, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page.getContent()
+        );
+        return okAtVersion(format, page).headers(headers).body(page.getContent().getContent());
+    }
+
+    private static void checkFields(List<String> fields) {
+        if (fields.isEmpty() || !CarQueryService.PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new BadRequestAlertException("Invalid fields", ENTITY_NAME, "fieldsinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /cars/seek} : get a page of the cars, using keyset pagination.
+     * <p>
+     * The token of the next page is returned in the {@code X-Next-Cursor} header, and in a {@code Link} header,
+     * when there are more cars.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the token of the page to return, none for the first page.
+     * @param orderBy the order of the cars, {@code id} or {@code price}, ignored when a cursor is given.
+     * @param size the maximum number of cars to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 400 (Bad Request)} if the cursor, the order or the size is not valid.
+     */
+    @GetMapping("/cars/seek")
+    public ResponseEntity<List<CarDTO>> getCarsAfterCursor(
+        CarCriteria criteria,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "orderBy", defaultValue = "id") String orderBy,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get a keyset page of Cars by criteria: {}, cursor: {}", criteria, cursor);
+        if (size < 1 || size > MAX_SEEK_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        CarKeysetCursor keysetCursor;
+        try {
+            keysetCursor =
+                cursor != null ? CarKeysetCursor.decode(cursor) : CarKeysetCursor.first(CarKeysetCursor.Order.fromParameter(orderBy));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor or order", ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<CarDTO> slice = carQueryService.findByCriteria(criteria, keysetCursor, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            CarDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            String next = CarKeysetCursor.after(keysetCursor.getOrder(), last).encode();
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next).toUriString();
+            headers.add(NEXT_CURSOR_HEADER, next);
+            headers.add(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /cars/stream} : stream all the cars as newline-delimited JSON.
+     * <p>
+     * Cars are read through a database cursor and written to the response one at a time, so the heap used does not
+     * depend on the number of matching cars.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param response the response the cars are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/cars/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllCars(CarCriteria criteria, HttpServletResponse response) throws IOException {
+        log.debug("REST request to stream Cars by criteria: {}", criteria);
+        writeNdjson(response, carDTOs -> carQueryService.streamByCriteria(criteria, carDTOs));
+    }
+
+    /**
+     * {@code POST  /cars/bulk} : Create new cars.
+     *
+     * @param carDTOs the carDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each car,
+     * with status {@code 201} and the new id, or {@code 400} if it already has an ID.
+     */
+    @PostMapping(
+        value = "/cars/bulk",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<List<CarBulkResultDTO>> createCars(@RequestBody List<CarDTO> carDTOs) {
+        log.debug("REST request to save {} Cars", carDTOs.size());
+        List<CarBulkResultDTO> results = new ArrayList<>(carDTOs.size());
+        carBulkService.createAll(carDTOs.iterator(), results::add);
+        return ResponseEntity.ok().body(results);
+    }
+
+    /**
+     * {@code POST  /cars/bulk} : Create new cars, read from and reported as newline-delimited JSON.
+     * <p>
+     * Cars are read from the request as they are processed, and the result of each one is written once its chunk
+     * is committed, so that arbitrarily large imports can be sent in a single request.
+     *
+     * @param request the request holding one carDTO per line.
+     * @param response the response the result of each car is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    @PostMapping(value = "/cars/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createCarsFromNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to save Cars from NDJSON");
+        try (MappingIterator<CarDTO> carDTOs = carReader.readValues(request.getInputStream())) {
+            writeNdjson(response, results -> carBulkService.createAll(carDTOs, results));
+        }
+    }
+
+    /**
+     * {@code PUT  /cars/bulk} : Updates existing cars.
+     *
+     * @param carDTOs the carDTOs to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each car,
+     * with status {@code 200}, or {@code 400} if it has no ID, or {@code 404} if it does not exist.
+     */
+    @PutMapping(
+        value = "/cars/bulk",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<List<CarBulkResultDTO>> updateCars(@RequestBody List<CarDTO> carDTOs) {
+        log.debug("REST request to update {} Cars", carDTOs.size());
+        List<CarBulkResultDTO> results = new ArrayList<>(carDTOs.size());
+        carBulkService.updateAll(carDTOs.iterator(), results::add);
+        return ResponseEntity.ok().body(results);
+    }
+
+    /**
+     * {@code PUT  /cars/bulk} : Updates existing cars, read from and reported as newline-delimited JSON.
+     *
+     * @param request the request holding one carDTO per line.
+     * @param response the response the result of each car is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    @PutMapping(value = "/cars/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void updateCarsFromNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to update Cars from NDJSON");
+        try (MappingIterator<CarDTO> carDTOs = carReader.readValues(request.getInputStream())) {
+            writeNdjson(response, results -> carBulkService.updateAll(carDTOs, results));
+        }
+    }
+
+    /**
+     * {@code DELETE  /cars/bulk} : delete cars.
+     *
+     * @param ids the ids of the cars to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id,
+     * with status {@code 204}, or {@code 404} if it does not exist.
+     */
+    @DeleteMapping(
+        value = "/cars/bulk",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE }
+    )
+    public ResponseEntity<List<CarBulkResultDTO>> deleteCars(@RequestBody List<Long> ids) {
+        log.debug("REST request to delete {} Cars", ids.size());
+        List<CarBulkResultDTO> results = new ArrayList<>(ids.size());
+        carBulkService.deleteAll(ids.iterator(), results::add);
+        return ResponseEntity.ok().body(results);
+    }
+
+    /**
+     * {@code DELETE  /cars/bulk} : delete cars, read from and reported as newline-delimited JSON.
+     *
+     * @param request the request holding one id per line.
+     * @param response the response the result of each id is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    @DeleteMapping(value = "/cars/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void deleteCarsFromNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to delete Cars from NDJSON");
+        try (MappingIterator<Long> ids = idReader.readValues(request.getInputStream())) {
+            writeNdjson(response, results -> carBulkService.deleteAll(ids, results));
+        }
+    }
+
+    /**
+     * Require the update to apply to the version of {@code If-Match}, in whichever format it was tagged. A single
+     * version is checked by the update itself, otherwise the current version of the car is checked against the listed
+     * ones first. {@code *} matches any version, the update failing the precondition if the car is not found, see
+     * {@link #notFound}.
+     *
+     * @return whether the car may match.
+     */
+    private boolean requireVersion(Long id, String ifMatch, Consumer<Long> versionSetter) {
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            if (tag.trim().equals("*")) {
+                return true;
+            }
+            Long version = versionOf(tag.trim());
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.size() == 1) {
+            versionSetter.accept(versions.get(0));
+            return true;
+        }
+        Optional<CarDTO> current = versions.isEmpty() ? Optional.empty() : carService.findOne(id);
+        if (current.isEmpty() || !versions.contains(current.get().getVersion())) {
+            return false;
+        }
+        versionSetter.accept(current.get().getVersion());
+        return true;
+    }
+
+    /**
+     * @return the version of a strong {@code ETag} of a car, or {@code null} if it is not one.
+     */
+    private static Long versionOf(String eTag) {
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            return null;
+        }
+        String version = Format.untag(eTag.substring(1, eTag.length() - 1));
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the response to an update of a car which is not found, which fails the precondition of {@code If-Match},
+     * if any, as no version of the car matches it.
+     */
+    private <T> ResponseEntity<T> notFound(String ifMatch) {
+        if (ifMatch != null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+    }
+
+    private static String eTag(CarDTO carDTO) {
+        return String.valueOf(carDTO.getVersion());
+    }
+
+    private static String listETag(String version) {
+        return "cars-" + version;
+    }
+
+    /**
+     * Tag the response with the {@code ETag} of the format it is written in, which is set rather than negotiated again
+     * when the body is written.
+     */
+    private static ResponseEntity.BodyBuilder tagged(ResponseEntity.BodyBuilder builder, Optional<Format> format, String eTag) {
+        format.ifPresent(selected -> builder.contentType(selected.getMediaType()));
+        return builder.eTag(format.orElse(Format.JSON).tag(eTag)).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Check the request against the {@code ETag} of the cars at their current version, if known, without tagging the
+     * response, which is tagged with the version the cars are then read at.
+     */
+    private static boolean isNotModified(HttpServletRequest request, Optional<Format> format, Optional<String> version) {
+        return (
+            format.isPresent() &&
+            version.isPresent() &&
+            new ServletWebRequest(request).checkNotModified(format.get().tag(listETag(version.get())))
+        );
+    }
+
+    /**
+     * @return the response with the cars, tagged with the version they were read at, if known.
+     */
+    private static ResponseEntity.BodyBuilder okAtVersion(Optional<Format> format, Versioned<?> cars) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return cars.getVersion().map(version -> tagged(builder, format, listETag(version))).orElse(builder);
+    }
+
+    /**
+     * @return the response to a request for the cars at their current version, in the format it was checked in.
+     */
+    private static <T> ResponseEntity<T> notModified(Optional<Format> format, String version) {
+        return ResponseEntity
+            .status(HttpStatus.NOT_MODIFIED)
+            .eTag(format.orElse(Format.JSON).tag(listETag(version)))
+            .varyBy(HttpHeaders.ACCEPT)
+            .build();
+    }
+
+    /**
+     * Write the values passed by the producer to the response, one JSON document per line, as they come.
+     */
+    private void writeNdjson(HttpServletResponse response, Consumer<Consumer<Object>> producer) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            producer.accept(value -> writeNdjsonValue(generator, value));
+            if (generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeNdjsonValue(JsonGenerator generator, Object value) {
+        try {
+            ndjsonWriter.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -153,20 +666,83 @@ public class CarResource {
     @GetMapping("/cars/count")
     public ResponseEntity<Long> countCars(CarCriteria criteria) {
         log.debug("REST request to count Cars by criteria: {}", criteria);
-        return ResponseEntity.ok().body(carQueryService.countByCriteria(criteria));
+        return ResponseEntity.ok().body(count(() -> carQueryService.countByCriteria(criteria)));
+    }
+
+    /**
+     * {@code GET  /cars/count?approximate=} : count all the cars, or estimate their number.
+     * <p>
+     * Estimates read the statistics of the table, and a sample of its pages when there are filters, rather than
+     * every matching car. Small numbers are counted exactly.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param approximate whether an estimate will do.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count, whether it is exact, and its error bound in body.
+     */
+    @GetMapping(value = "/cars/count", params = "approximate")
+    public ResponseEntity<CarCountDTO> countCarsApproximately(CarCriteria criteria, @RequestParam("approximate") boolean approximate) {
+        log.debug("REST request to count Cars by criteria: {}, approximate: {}", criteria, approximate);
+        if (!approximate) {
+            return ResponseEntity.ok().body(CarCountDTO.exact(count(() -> carQueryService.countByCriteria(criteria))));
+        }
+        return ResponseEntity.ok().body(count(() -> carQueryService.approximateCountByCriteria(criteria)));
+    }
+
+    /**
+     * Count the cars on the primary database when the counts are cached under the table version, see
+     * {@link PrimaryReads}, or else wherever the read-only transactions go.
+     */
+    private <T> T count(Supplier<T> counter) {
+        return applicationProperties.getCountCache().isEnabled() ? PrimaryReads.call(counter) : counter.get();
+    }
+
+    /**
+     * {@code GET  /cars/facets} : get the number of cars per colour and per price bucket, and statistics of their prices.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param priceBuckets the bounds of the price buckets, in strictly ascending order, {@code application.facets.price-buckets}
+     * by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facets in body,
+     * or with status {@code 400 (Bad Request)} if the bounds are not in strictly ascending order or are too many.
+     */
+    @GetMapping("/cars/facets")
+    public ResponseEntity<CarFacetsDTO> getCarFacets(
+        CarCriteria criteria,
+        @RequestParam(value = "priceBuckets", required = false) List<Integer> priceBuckets
+    ) {
+        log.debug("REST request to get the facets of Cars by criteria: {}, price buckets: {}", criteria, priceBuckets);
+        List<Integer> bounds = priceBuckets != null ? priceBuckets : applicationProperties.getFacets().getPriceBuckets();
+        if (bounds.size() > applicationProperties.getFacets().getMaxPriceBuckets()) {
+            throw new BadRequestAlertException("Too many price buckets", ENTITY_NAME, "pricebucketstoomany");
+        }
+        for (int i = 0; i < bounds.size(); i++) {
+            if (bounds.get(i) == null || (i > 0 && bounds.get(i) <= bounds.get(i - 1))) {
+                throw new BadRequestAlertException("Invalid price buckets", ENTITY_NAME, "pricebucketsinvalid");
+            }
+        }
+        return ResponseEntity.ok().body(carQueryService.facetsByCriteria(criteria, bounds));
     }
 
     /**
      * {@code GET  /cars/:id} : get the "id" car.
      *
      * @param id the id of the carDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the carDTO, or with status {@code 404 (Not Found)}.
+     * @param request the request, whose {@code Accept} header selects the format of the response.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the carDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the car is still at the version of {@code If-None-Match}.
      */
     @GetMapping("/cars/{id}")
-    public ResponseEntity<CarDTO> getCar(@PathVariable Long id) {
+    public ResponseEntity<CarDTO> getCar(@PathVariable Long id, HttpServletRequest request) {
         log.debug("REST request to get Car : {}", id);
         Optional<CarDTO> carDTO = carService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(carDTO);
+        Optional<Format> format = Format.of(request);
+        HttpHeaders headers = new HttpHeaders();
+        carDTO.ifPresent(car -> {
+            format.ifPresent(selected -> headers.setContentType(selected.getMediaType()));
+            headers.setETag(format.orElse(Format.JSON).tag(eTag(car)));
+        });
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        return ResponseUtil.wrapOrNotFound(carDTO, headers);
     }
 
     /**
@@ -184,4 +760,73 @@ public class CarResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * The formats the cars are written in, by order of preference, with the suffixes of their {@code ETag}s: JSON
+     * keeps the plain version.
+     */
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON, ""),
+        SMILE(MediaType.parseMediaType(APPLICATION_SMILE_VALUE), "-smile"),
+        CBOR(MediaType.APPLICATION_CBOR, "-cbor");
+
+        private final MediaType mediaType;
+
+        private final String suffix;
+
+        Format(MediaType mediaType, String suffix) {
+            this.mediaType = mediaType;
+            this.suffix = suffix;
+        }
+
+        /**
+         * Select the format of the response to the request, from its {@code Accept} header, as the message converters
+         * would.
+         *
+         * @return the format, or nothing if none is acceptable, for the message converters to reject the request.
+         */
+        static Optional<Format> of(HttpServletRequest request) {
+            List<MediaType> accepted;
+            try {
+                accepted = MediaType.parseMediaTypes(Collections.list(request.getHeaders(HttpHeaders.ACCEPT)));
+            } catch (InvalidMediaTypeException e) {
+                return Optional.empty();
+            }
+            if (accepted.isEmpty()) {
+                return Optional.of(JSON);
+            }
+            MediaType.sortBySpecificityAndQuality(accepted);
+            for (MediaType mediaType : accepted) {
+                for (Format format : values()) {
+                    if (mediaType.getQualityValue() > 0 && mediaType.includes(format.mediaType)) {
+                        return Optional.of(format);
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * @return the value tagged in any format, without its suffix.
+         */
+        static String untag(String value) {
+            for (Format format : values()) {
+                if (!format.suffix.isEmpty() && value.endsWith(format.suffix)) {
+                    return value.substring(0, value.length() - format.suffix.length());
+                }
+            }
+            return value;
+        }
+
+        MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @return the strong {@code ETag} of the value in this format.
+         */
+        String tag(String value) {
+            return "\"" + value + suffix + "\"";
+        }
+    }
 }
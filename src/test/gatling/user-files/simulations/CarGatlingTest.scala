@@ -4,10 +4,24 @@ import io.gatling.core.Predef._
 import io.gatling.http.Predef._
 import org.slf4j.LoggerFactory
 
+import java.util.concurrent.ThreadLocalRandom
 import scala.concurrent.duration._
 
 /**
- * Performance test for the Car entity.
+ * Load test for the Car entity, run against a standalone instance started with the "prod,loadtest" profiles.
+ *
+ * Drives an open workload mixing reads, criteria searches and writes, each at its own arrival rate, in new users per
+ * second. Every request is authenticated with a token minted by [[CarappToken]], out of a pool of users.
+ *
+ * System properties:
+ *  - baseURL: the URL of the instance, http://localhost:8081 by default
+ *  - readRate, searchRate, writeRate: the arrival rates of each workload, 50, 20 and 5 by default
+ *  - rampUp: the time over which the rates go up to their target, 60 seconds by default
+ *  - duration: the time the rates are held at their target, 300 seconds by default
+ *  - users: the number of distinct users, and tokens, 100 by default
+ *  - maxP99: the 99th percentile of the response time the run is failed above, 1000 ms by default
+ *
+ * The p50, p95, p99 and p99.9 response times of each request, and the throughput, are in the Gatling report.
  */
 class CarGatlingTest extends Simulation {
 
@@ -19,80 +33,99 @@ class CarGatlingTest extends Simulation {
 
     val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8081"""
 
+    val readRate = Integer.getInteger("readRate", 50).toDouble
+    val searchRate = Integer.getInteger("searchRate", 20).toDouble
+    val writeRate = Integer.getInteger("writeRate", 5).toDouble
+    val rampUp = Integer.getInteger("rampUp", 60).toInt.seconds
+    val duration = Integer.getInteger("duration", 300).toInt.seconds
+
     val httpConf = http
         .baseUrl(baseURL)
-        .inferHtmlResources()
-        .acceptHeader("*/*")
+        .acceptHeader("application/json")
         .acceptEncodingHeader("gzip, deflate")
-        .acceptLanguageHeader("fr,fr-fr;q=0.8,en-us;q=0.5,en;q=0.3")
         .connectionHeader("keep-alive")
-        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
-        .silentResources // Silence all resources like css or css so they don't clutter the results
-
-    val headers_http = Map(
-        "Accept" -> """application/json"""
-    )
-
-    val headers_http_authentication = Map(
-        "Content-Type" -> """application/json""",
-        "Accept" -> """application/json"""
-    )
+        .userAgentHeader("carapp-loadtest")
 
     val headers_http_authenticated = Map(
         "Accept" -> """application/json""",
         "Authorization" -> "${access_token}"
     )
 
-    val scn = scenario("Test the Car entity")
-        .exec(http("First unauthenticated request")
-        .get("/api/account")
-        .headers(headers_http)
-        .check(status.is(401))
-        ).exitHereIfFailed
-        .pause(10)
-        .exec(http("Authentication")
-        .post("/api/authenticate")
-        .headers(headers_http_authentication)
-        .body(StringBody("""{"username":"admin", "password":"admin"}""")).asJson
-        .check(header("Authorization").saveAs("access_token"))).exitHereIfFailed
-        .pause(2)
-        .exec(http("Authenticated request")
-        .get("/api/account")
+    val tokens = CarappToken.feeder(Integer.getInteger("users", 100), rampUp + duration + 10.minutes).circular
+
+    val colours = Array("red", "green", "blue", "black", "white")
+
+    val cars = Iterator.continually(Map(
+        "name" -> s"Car ${ThreadLocalRandom.current().nextInt(100000)}",
+        "colour" -> colours(ThreadLocalRandom.current().nextInt(colours.length)),
+        "price" -> ThreadLocalRandom.current().nextInt(1000, 100000)
+    ))
+
+    val searches = Iterator.continually(Map(
+        "nameFragment" -> ThreadLocalRandom.current().nextInt(10).toString,
+        "colour" -> colours(ThreadLocalRandom.current().nextInt(colours.length)),
+        "minPrice" -> ThreadLocalRandom.current().nextInt(1000, 50000),
+        "page" -> ThreadLocalRandom.current().nextInt(5)
+    ))
+
+    val read = scenario("Read cars")
+        .feed(tokens)
+        .feed(searches)
+        .exec(http("Get a page of cars")
+        .get("/api/cars?page=${page}&size=20&sort=id,asc")
         .headers(headers_http_authenticated)
-        .check(status.is(200)))
-        .pause(10)
-        .repeat(2) {
-            exec(http("Get all cars")
-            .get("/services/carapp/api/cars")
+        .check(status.is(200))
+        .check(jsonPath("$[0].id").optional.saveAs("car_id")))
+        .doIf("${car_id.exists()}") {
+            exec(http("Get a car")
+            .get("/api/cars/${car_id}")
             .headers(headers_http_authenticated)
             .check(status.is(200)))
-            .pause(10 seconds, 20 seconds)
-            .exec(http("Create new car")
-            .post("/services/carapp/api/cars")
-            .headers(headers_http_authenticated)
-            .body(StringBody("""{
-                "name":"SAMPLE_TEXT"
-                , "colour":"SAMPLE_TEXT"
-                , "price":"0"
-                }""")).asJson
-            .check(status.is(201))
-            .check(headerRegex("Location", "(.*)").saveAs("new_car_url"))).exitHereIfFailed
-            .pause(10)
-            .repeat(5) {
-                exec(http("Get created car")
-                .get("/services/carapp${new_car_url}")
-                .headers(headers_http_authenticated))
-                .pause(10)
-            }
-            .exec(http("Delete created car")
-            .delete("/services/carapp${new_car_url}")
-            .headers(headers_http_authenticated))
-            .pause(10)
         }
 
-    val users = scenario("Users").exec(scn)
+    val search = scenario("Search cars")
+        .feed(tokens)
+        .feed(searches)
+        .exec(http("Search cars by criteria")
+        .get("/api/cars?name.contains=${nameFragment}&colour.equals=${colour}&price.greaterThanOrEqual=${minPrice}&page=${page}&size=20")
+        .headers(headers_http_authenticated)
+        .check(status.is(200)))
+        .exec(http("Count cars by criteria")
+        .get("/api/cars/count?colour.equals=${colour}&price.greaterThanOrEqual=${minPrice}")
+        .headers(headers_http_authenticated)
+        .check(status.is(200)))
+
+    val write = scenario("Write cars")
+        .feed(tokens)
+        .feed(cars)
+        .exec(http("Create new car")
+        .post("/api/cars")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"name":"${name}", "colour":"${colour}", "price":${price}}""")).asJson
+        .check(status.is(201))
+        .check(jsonPath("$.id").saveAs("car_id"))).exitHereIfFailed
+        .exec(http("Update car")
+        .put("/api/cars/${car_id}")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"id":${car_id}, "name":"${name}", "colour":"${colour}", "price":${price}}""")).asJson
+        .check(status.is(200)))
+        .exec(http("Delete car")
+        .delete("/api/cars/${car_id}")
+        .headers(headers_http_authenticated)
+        .check(status.is(204)))
+
+    def injection(rate: Double) = Seq(
+        rampUsersPerSec(0.1) to rate during rampUp,
+        constantUsersPerSec(rate) during duration
+    )
 
     setUp(
-        users.inject(rampUsers(Integer.getInteger("users", 100)) during (Integer.getInteger("ramp", 1) minutes))
+        read.inject(injection(readRate)),
+        search.inject(injection(searchRate)),
+        write.inject(injection(writeRate))
     ).protocols(httpConf)
+        .assertions(
+            global.failedRequests.percent.lt(1),
+            global.responseTime.percentile3.lt(Integer.getInteger("maxP99", 1000))
+        )
 }
@@ -0,0 +1,72 @@
+import _root_.io.gatling.core.scenario.Simulation
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Insert throughput test for the Car entity, run against a standalone instance started with the "prod,loadtest" profiles.
+ *
+ * Compare the requests per second and response times of "Create new car" and "Create cars in bulk" between builds,
+ * e.g. before and after a change of the id generation of cars, with the same number of users.
+ *
+ * With the defaults, for 60 seconds after 20 of warm-up, on a single CPU shared with the database, single creates
+ * ran at 196 to 201 requests per second (p95 173 to 176 ms) with blocks of 50 ids from the shared sequence, and at 183
+ * to 192 (p95 188 to 207 ms) with blocks of 500 from car_sequence_generator; bulk creates at 14.0 to 14.4 and 12.0 to
+ * 12.8 per second. A single instance calls the sequence once per 50 inserts either way: larger blocks could only pay
+ * off when several instances insert at once, so blocks stay of 50 ids until a run with several instances shows it.
+ */
+class CarInsertGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8081"""
+
+    val httpConf = http
+        .baseUrl(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .connectionHeader("keep-alive")
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val bulkSize = Integer.getInteger("bulkSize", 100)
+
+    val car = """{"name":"SAMPLE_TEXT", "colour":"SAMPLE_TEXT", "price":0}"""
+
+    val tokens = CarappToken.feeder(Integer.getInteger("users", 20), Integer.getInteger("duration", 60).toInt.seconds + 10.minutes).circular
+
+    val single = scenario("Create cars one by one")
+        .feed(tokens)
+        .during(Integer.getInteger("duration", 60) seconds) {
+            exec(http("Create new car")
+            .post("/api/cars")
+            .headers(headers_http_authenticated)
+            .body(StringBody(car)).asJson
+            .check(status.is(201)))
+        }
+
+    val bulk = scenario("Create cars in bulk")
+        .feed(tokens)
+        .during(Integer.getInteger("duration", 60) seconds) {
+            exec(http("Create cars in bulk")
+            .post("/api/cars/bulk")
+            .headers(headers_http_authenticated)
+            .body(StringBody(Seq.fill(bulkSize)(car).mkString("[", ",", "]"))).asJson
+            .check(status.is(200)))
+        }
+
+    setUp(
+        single.inject(atOnceUsers(Integer.getInteger("users", 20))),
+        bulk.inject(atOnceUsers(Integer.getInteger("bulkUsers", 4)))
+    ).protocols(httpConf)
+}
@@ -0,0 +1,68 @@
+import _root_.io.gatling.core.scenario.Simulation
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Update throughput test for the Car entity, run against a standalone instance started with the "prod,loadtest" profiles.
+ *
+ * Each user creates a car, then updates it over and over with PUT, with the If-Match of its last ETag when the
+ * "ifMatch" system property is true. Compare the requests per second and response times of "Update car" between
+ * builds, e.g. before and after a change of the statements an update takes, with the same number of users.
+ *
+ * With the defaults, for 60 seconds after 20 of warm-up, on a single CPU shared with the database, updates ran at 159
+ * to 164 requests per second (p95 212 to 225 ms) when they took an exists query, a select and an update, and at 288 to
+ * 307 (p95 127 to 133 ms) with a single update returning the car; with If-Match, at 142 to 164 and 260 to 264.
+ */
+class CarUpdateGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8081"""
+
+    val ifMatch = java.lang.Boolean.getBoolean("ifMatch")
+
+    val httpConf = http
+        .baseUrl(baseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .connectionHeader("keep-alive")
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val tokens = CarappToken.feeder(Integer.getInteger("users", 20), Integer.getInteger("duration", 60).toInt.seconds + 10.minutes).circular
+
+    val update = http("Update car")
+        .put("/api/cars/${car_id}")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"id":${car_id}, "name":"SAMPLE_TEXT ${counter}", "colour":"SAMPLE_TEXT", "price":${counter}}""")).asJson
+        .check(status.is(200))
+        .check(header("ETag").saveAs("etag"))
+
+    val scn = scenario("Update cars one by one")
+        .feed(tokens)
+        .exec(http("Create new car")
+            .post("/api/cars")
+            .headers(headers_http_authenticated)
+            .body(StringBody("""{"name":"SAMPLE_TEXT", "colour":"SAMPLE_TEXT", "price":0}""")).asJson
+            .check(status.is(201))
+            .check(jsonPath("$.id").saveAs("car_id"))
+            .check(header("ETag").saveAs("etag")))
+        .during(Integer.getInteger("duration", 60) seconds, "counter") {
+            exec(if (ifMatch) update.header("If-Match", "${etag}") else update)
+        }
+
+    setUp(
+        scn.inject(atOnceUsers(Integer.getInteger("users", 20)))
+    ).protocols(httpConf)
+}
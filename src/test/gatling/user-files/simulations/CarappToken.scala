@@ -0,0 +1,43 @@
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.Base64
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+
+import scala.concurrent.duration._
+
+/**
+ * Mints the JWTs the simulations authenticate with, signed with the secret of the application, as this service only
+ * validates tokens and has no endpoint issuing them.
+ */
+object CarappToken {
+
+    // Same as jhipster.security.authentication.jwt.base64-secret in application-loadtest.yml
+    val base64Secret = Option(System.getProperty("base64Secret"))
+        .orElse(Option(System.getenv("JHIPSTER_SECURITY_AUTHENTICATION_JWT_BASE64_SECRET")))
+        .getOrElse(throw new IllegalStateException(
+            "Set the JWT secret of the application in JHIPSTER_SECURITY_AUTHENTICATION_JWT_BASE64_SECRET or -Dbase64Secret"))
+
+    private val encoder = Base64.getUrlEncoder.withoutPadding
+
+    private val header = encode("""{"alg":"HS512"}""")
+
+    /**
+     * Mint a HS512 token, with the claims of the tokens of the application.
+     */
+    def mint(subject: String, authorities: String = "ROLE_USER", validity: FiniteDuration = 1.hour): String = {
+        val expiration = (System.currentTimeMillis() + validity.toMillis) / 1000
+        val payload = encode(s"""{"sub":"$subject","auth":"$authorities","exp":$expiration}""")
+        val mac = Mac.getInstance("HmacSHA512")
+        mac.init(new SecretKeySpec(Base64.getDecoder.decode(base64Secret), "HmacSHA512"))
+        val signature = encoder.encodeToString(mac.doFinal(s"$header.$payload".getBytes(UTF_8)))
+        s"$header.$payload.$signature"
+    }
+
+    /**
+     * Feeder of the authorization headers of a pool of users, so that the requests are spread over several tokens.
+     */
+    def feeder(users: Int, validity: FiniteDuration): IndexedSeq[Map[String, String]] =
+        (1 to users).map(i => Map("access_token" -> s"Bearer ${mint(s"loadtest-user-$i", validity = validity)}"))
+
+    private def encode(json: String): String = encoder.encodeToString(json.getBytes(UTF_8))
+}
@@ -0,0 +1,77 @@
+package com.synyctiks.car.aop.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+
+class ProfilingAspectTest {
+
+    @Test
+    void testEveryCallIsProfiledWithoutSampling() throws Throwable {
+        ProfilingAspect profilingAspect = new ProfilingAspect(1);
+        ProceedingJoinPoint joinPoint = joinPoint("findAll");
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertThat(profilingAspect.profileAround(joinPoint)).isEqualTo("result");
+        assertThat(profilingAspect.profileAround(joinPoint)).isEqualTo("result");
+
+        List<MethodProfile> profiles = profilingAspect.getProfiles(10, Comparator.comparing(MethodProfile::getMethod));
+        assertThat(profiles).extracting(MethodProfile::getMethod).containsExactly("com.synyctiks.car.service.CarService.findAll");
+        assertThat(profiles.get(0).getCalls()).isEqualTo(2);
+        assertThat(profiles.get(0).getFailures()).isZero();
+    }
+
+    @Test
+    void testFailedCallsAreCounted() throws Throwable {
+        ProfilingAspect profilingAspect = new ProfilingAspect(1);
+        ProceedingJoinPoint joinPoint = joinPoint("delete");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failure"));
+
+        assertThatThrownBy(() -> profilingAspect.profileAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        MethodProfile profile = profilingAspect.getProfiles(1, Comparator.comparing(MethodProfile::getMethod)).get(0);
+        assertThat(profile.getCalls()).isEqualTo(1);
+        assertThat(profile.getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void testResetForgetsProfiles() throws Throwable {
+        ProfilingAspect profilingAspect = new ProfilingAspect(1);
+        profilingAspect.profileAround(joinPoint("findOne"));
+
+        profilingAspect.reset();
+
+        assertThat(profilingAspect.getProfiles(10, Comparator.comparing(MethodProfile::getMethod))).isEmpty();
+    }
+
+    @Test
+    void testPercentilesAreBoundedByTheirBucket() {
+        MethodProfile profile = new MethodProfile("method");
+        for (int i = 0; i < 99; i++) {
+            profile.record(TimeUnit.MICROSECONDS.toNanos(10), false);
+        }
+        profile.record(TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        assertThat(profile.getPercentileNanos(0.5)).isBetween(TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MICROSECONDS.toNanos(20));
+        assertThat(profile.getPercentileNanos(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(profile.getMaxNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(new MethodProfile("unused").getPercentileNanos(0.99)).isZero();
+    }
+
+    private ProceedingJoinPoint joinPoint(String methodName) {
+        Signature signature = mock(Signature.class);
+        when(signature.getDeclaringTypeName()).thenReturn("com.synyctiks.car.service.CarService");
+        when(signature.getName()).thenReturn(methodName);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+}
@@ -0,0 +1,132 @@
+package com.synyctiks.car.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.synyctiks.car.IntegrationTest;
+import com.synyctiks.car.repository.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ReplicaRoutingDataSource} class, over the test database, whose {@code replica}
+ * schema stands for a replica which has not caught up with the writes to the primary yet.
+ */
+@IntegrationTest
+class ReplicaRoutingDataSourceIT {
+
+    private static final String REPLICA_SCHEMA = "replica";
+
+    private static final long CAR_ID = -1017L;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private HikariDataSource primary;
+
+    private JdbcTemplate primaryJdbcTemplate;
+
+    private HikariDataSource replica;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setup() {
+        String url = dataSourceProperties.determineUrl();
+        primary = dataSource(url);
+        primaryJdbcTemplate = new JdbcTemplate(primary);
+        primaryJdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + REPLICA_SCHEMA);
+        primaryJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + REPLICA_SCHEMA + ".car (LIKE public.car INCLUDING DEFAULTS)");
+
+        replica = dataSource(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + REPLICA_SCHEMA);
+        routingDataSource =
+            new ReplicaRoutingDataSource(
+                primary,
+                Map.of("replica-1", replica),
+                new ConcurrentHashMap<>(),
+                Duration.ofSeconds(5),
+                Clock.systemUTC()
+            );
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        primaryJdbcTemplate.update("DELETE FROM car WHERE id = ?", CAR_ID);
+        primaryJdbcTemplate.execute("DROP SCHEMA " + REPLICA_SCHEMA + " CASCADE");
+        routingDataSource.close();
+        primary.close();
+    }
+
+    @Test
+    void testReadOnlyTransactionsReadFromReplica() {
+        insertCar();
+
+        assertThat(countCars(readOnlyTransactionTemplate)).isZero();
+        assertThat(countCars(transactionTemplate)).isEqualTo(1);
+    }
+
+    @Test
+    void testPrimaryReadsReadFromPrimary() {
+        insertCar();
+
+        assertThat(PrimaryReads.call(() -> countCars(readOnlyTransactionTemplate))).isEqualTo(1);
+        assertThat(countCars(readOnlyTransactionTemplate)).isZero();
+    }
+
+    @Test
+    void testUserReadsOwnWritesFromPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "password"));
+        insertCar();
+
+        assertThat(countCars(readOnlyTransactionTemplate)).isEqualTo(1);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other", "password"));
+        assertThat(countCars(readOnlyTransactionTemplate)).isZero();
+    }
+
+    private void insertCar() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("INSERT INTO car (id, name, colour, price) VALUES (?, 'Replica', 'red', 100)", CAR_ID)
+        );
+    }
+
+    private int countCars(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT count(*) FROM car WHERE id = ?", Integer.class, CAR_ID));
+    }
+
+    private HikariDataSource dataSource(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(dataSourceProperties.determineUsername());
+        dataSource.setPassword(dataSourceProperties.determinePassword());
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
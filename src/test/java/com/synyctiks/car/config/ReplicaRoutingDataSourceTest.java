@@ -0,0 +1,140 @@
+package com.synyctiks.car.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for the {@link ReplicaRoutingDataSource} class.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replica1Connection = mock(Connection.class);
+
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private Map<String, DataSource> replicas;
+
+    private DataSource primary;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        primary = dataSource(primaryConnection);
+        replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", dataSource(replica1Connection));
+        replicas.put("replica-2", dataSource(replica2Connection));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplicasInTurn() throws Exception {
+        ReplicaRoutingDataSource routing = routing(Duration.ofSeconds(5), NOW);
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+        assertThat(routing.getConnection()).isSameAs(replica2Connection);
+        assertThat(routing.getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    void testOtherConnectionsGoToPrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing(Duration.ofSeconds(5), NOW);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        beginTransaction(false);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testReadsOwnWritesFromPrimary() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "password"));
+        ReplicaRoutingDataSource routing = routing(Duration.ofSeconds(5), NOW);
+        beginTransaction(false);
+        routing.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cleanup();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "password"));
+
+        beginTransaction(true);
+        assertThat(routing(Duration.ofSeconds(5), NOW.plusSeconds(4)).getConnection()).isSameAs(primaryConnection);
+        assertThat(routing(Duration.ofSeconds(5), NOW.plusSeconds(5)).getConnection()).isSameAs(replica1Connection);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other", "password"));
+        assertThat(routing(Duration.ofSeconds(5), NOW.plusSeconds(1)).getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    void testStickinessDisabled() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "password"));
+        lastWrites.put("user", NOW.toEpochMilli());
+        beginTransaction(true);
+
+        assertThat(routing(Duration.ZERO, NOW).getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    void testWithoutReplicas() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Map.of(), lastWrites, Duration.ZERO, Clock.systemUTC());
+        routing.afterPropertiesSet();
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    private ReplicaRoutingDataSource routing(Duration stickiness, Instant now) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primary,
+            replicas,
+            lastWrites,
+            stickiness,
+            Clock.fixed(now, ZoneOffset.UTC)
+        );
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static DataSource dataSource(Connection connection) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultSingletonBeanRegistry;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
 import org.springframework.test.context.ContextConfigurationAttributes;
 import org.springframework.test.context.ContextCustomizer;
 import org.springframework.test.context.ContextCustomizerFactory;
@@ -27,7 +28,14 @@ public class TestContainersSpringContextCustomizerFactory implements ContextCust
             ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
             TestPropertyValues testValues = TestPropertyValues.empty();
             EmbeddedSQL sqlAnnotation = AnnotatedElementUtils.findMergedAnnotation(testClass, EmbeddedSQL.class);
-            if (null != sqlAnnotation) {
+            Environment environment = context.getEnvironment();
+            String databaseUrl = environment.getProperty("it.database.url");
+            if (null != sqlAnnotation && null != databaseUrl) {
+                log.info("Using the sql database at {}", databaseUrl);
+                testValues = testValues.and("spring.datasource.url=" + databaseUrl);
+                testValues = testValues.and("spring.datasource.username=" + environment.getProperty("it.database.username", ""));
+                testValues = testValues.and("spring.datasource.password=" + environment.getProperty("it.database.password", ""));
+            } else if (null != sqlAnnotation) {
                 log.debug("detected the EmbeddedSQL annotation on class {}", testClass.getName());
                 log.info("Warming up the sql database");
                 if (
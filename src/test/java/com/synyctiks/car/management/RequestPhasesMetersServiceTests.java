@@ -0,0 +1,74 @@
+package com.synyctiks.car.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.synyctiks.car.management.RequestPhases.Phase;
+import com.synyctiks.car.management.RequestPhases.Recording;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestPhasesMetersServiceTests {
+
+    private static final String PHASE_METER_EXPECTED_NAME = "carapp.request.phase";
+
+    private static final String STATEMENTS_METER_EXPECTED_NAME = "carapp.request.statements";
+
+    private MeterRegistry meterRegistry;
+
+    private RequestPhasesMetersService requestPhasesMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        requestPhasesMetersService = new RequestPhasesMetersService(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestPhases.stop();
+    }
+
+    @Test
+    void testPhasesAreRecordedPerEndpoint() {
+        RequestPhases.start();
+        assertThat(RequestPhases.time(Phase.SPECIFICATION, () -> "specification")).isEqualTo("specification");
+        RequestPhases.current().add(Phase.JDBC, TimeUnit.MILLISECONDS.toNanos(3));
+        RequestPhases.current().countStatement();
+        RequestPhases.current().countStatement();
+        Recording recording = RequestPhases.stop();
+
+        requestPhasesMetersService.record("getAllCars", recording);
+
+        assertThat(meterRegistry.get(PHASE_METER_EXPECTED_NAME).tag("endpoint", "getAllCars").tag("phase", "jdbc").timer().count())
+            .isEqualTo(1);
+        assertThat(
+            meterRegistry
+                .get(PHASE_METER_EXPECTED_NAME)
+                .tag("endpoint", "getAllCars")
+                .tag("phase", "jdbc")
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS)
+        )
+            .isEqualTo(3);
+        assertThat(
+            meterRegistry.get(PHASE_METER_EXPECTED_NAME).tag("endpoint", "getAllCars").tag("phase", "specification").timer().count()
+        )
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(PHASE_METER_EXPECTED_NAME).tag("endpoint", "getAllCars").tag("phase", "mapping").timer().count())
+            .isZero();
+        assertThat(meterRegistry.get(STATEMENTS_METER_EXPECTED_NAME).tag("endpoint", "getAllCars").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void testNothingIsRecordedOutsideOfARequest() {
+        assertThat(RequestPhases.time(Phase.MAPPING, () -> "mapping")).isEqualTo("mapping");
+
+        assertThat(RequestPhases.current()).isNull();
+        assertThat(RequestPhases.stop()).isNull();
+    }
+}
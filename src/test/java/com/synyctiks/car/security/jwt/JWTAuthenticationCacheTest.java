@@ -0,0 +1,124 @@
+package com.synyctiks.car.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+class JWTAuthenticationCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("test-user", "token", Collections.emptyList());
+
+    private TestClock clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = new TestClock();
+    }
+
+    @Test
+    void testGetCachedAuthentication() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(10, clock);
+        cache.put("token", authentication, Date.from(NOW.plusSeconds(60)));
+
+        assertThat(cache.get("token")).isSameAs(authentication);
+        assertThat(cache.get("other-token")).isNull();
+    }
+
+    @Test
+    void testExpiredAuthenticationIsEvicted() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(10, clock);
+        cache.put("token", authentication, Date.from(NOW.plusSeconds(60)));
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("token")).isSameAs(authentication);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(10, clock);
+        cache.put("token", authentication, Date.from(NOW));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testFullCacheDoesNotGrow() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(1, clock);
+        cache.put("token", authentication, Date.from(NOW.plusSeconds(60)));
+        cache.put("other-token", authentication, Date.from(NOW.plusSeconds(60)));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("token")).isSameAs(authentication);
+        assertThat(cache.get("other-token")).isNull();
+    }
+
+    @Test
+    void testFullCachePurgesExpiredAuthentications() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(1, clock);
+        cache.put("token", authentication, Date.from(NOW.plusSeconds(60)));
+
+        clock.advance(Duration.ofSeconds(60));
+        cache.put("other-token", authentication, Date.from(NOW.plusSeconds(120)));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("other-token")).isSameAs(authentication);
+    }
+
+    @Test
+    void testDisabledCache() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(0, clock);
+        cache.put("token", authentication, Date.from(NOW.plusSeconds(60)));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testTokenWithoutExpirationIsNotCached() {
+        JWTAuthenticationCache cache = new JWTAuthenticationCache(10, clock);
+        cache.put("token", authentication, null);
+
+        assertThat(cache.get("token")).isNull();
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant instant = NOW;
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
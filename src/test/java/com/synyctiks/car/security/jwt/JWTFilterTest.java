@@ -15,6 +15,7 @@ import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -61,6 +62,28 @@ class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials()).hasToString(jwt);
     }
 
+    @Test
+    void testJWTFilterCachesAuthentication() throws Exception {
+        JWTFilter cachingJwtFilter = new JWTFilter(tokenProvider, new JWTAuthenticationCache(10));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+
+        cachingJwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication firstAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().setAuthentication(null);
+        cachingJwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(firstAuthentication.getName()).isEqualTo("test-user");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(firstAuthentication);
+    }
+
     @Test
     void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
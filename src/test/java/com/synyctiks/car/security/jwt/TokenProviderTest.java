@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.synyctiks.car.management.SecurityMetersService;
 import com.synyctiks.car.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -43,6 +44,27 @@ class TokenProviderTest {
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
+    @Test
+    void testParseValidClaimsBuildsAuthentication() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+
+        Optional<Claims> claims = tokenProvider.parseValidClaims(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getExpiration()).isInTheFuture();
+        Authentication parsedAuthentication = tokenProvider.getAuthentication(claims.get(), token);
+        assertThat(parsedAuthentication.getName()).isEqualTo("anonymous");
+        assertThat(parsedAuthentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testParseValidClaimsIsEmptyWhenJWThasInvalidSignature() {
+        assertThat(tokenProvider.parseValidClaims(createTokenWithDifferentSignature())).isEmpty();
+    }
+
     @Test
     void testReturnFalseWhenJWThasInvalidSignature() {
         boolean isTokenValid = tokenProvider.validateToken(createTokenWithDifferentSignature());
@@ -0,0 +1,92 @@
+package com.synyctiks.car.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.synyctiks.car.IntegrationTest;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the {@link CarCountCache} class, enabled here as in production, with the cars written and
+ * committed through the {@link CarService}, which increments the {@link CarTableVersion}.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.count-cache.enabled=true")
+class CarCountCacheIT {
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> carIds = new ArrayList<>();
+
+    private CarCriteria criteria;
+
+    @BeforeEach
+    public void setup() {
+        String colour = UUID.randomUUID().toString();
+        criteria = new CarCriteria();
+        criteria.colour().setEquals(colour);
+        saveCar(colour);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        carRepository.deleteAllById(carIds);
+    }
+
+    @Test
+    void testRepeatedCountIsHit() {
+        double hits = count("hit");
+        double misses = count("miss");
+
+        assertThat(carQueryService.countByCriteria(criteria)).isEqualTo(1);
+        assertThat(carQueryService.countByCriteria(criteria)).isEqualTo(1);
+
+        assertThat(count("miss")).isEqualTo(misses + 1);
+        assertThat(count("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void testCountAfterWriteIsMiss() {
+        assertThat(carQueryService.countByCriteria(criteria)).isEqualTo(1);
+        double hits = count("hit");
+        double misses = count("miss");
+
+        saveCar(criteria.getColour().getEquals());
+
+        assertThat(carQueryService.countByCriteria(criteria)).isEqualTo(2);
+        assertThat(count("miss")).isEqualTo(misses + 1);
+        assertThat(count("hit")).isEqualTo(hits);
+    }
+
+    private void saveCar(String colour) {
+        CarDTO carDTO = new CarDTO();
+        carDTO.setName("Counted");
+        carDTO.setColour(colour);
+        carDTO.setPrice(100);
+        carIds.add(carService.save(carDTO).getId());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("carapp.count.cache").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,122 @@
+package com.synyctiks.car.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CarCountCacheTest {
+
+    private final Map<CarCountKey, Long> counts = new HashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicInteger databaseCounts = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private CarCountCache carCountCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        IMap<CarCountKey, Long> map = mock(IMap.class);
+        when(map.get(any())).thenAnswer(invocation -> counts.get(invocation.<CarCountKey>getArgument(0)));
+        doAnswer(invocation -> counts.put(invocation.getArgument(0), invocation.getArgument(1))).when(map).set(any(), anyLong());
+        CarTableVersion carTableVersion = mock(CarTableVersion.class);
+        when(carTableVersion.get()).thenAnswer(invocation -> version.get());
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<CarCountKey, Long>getMap(CarCountCache.MAP_NAME)).thenReturn(map);
+
+        meterRegistry = new SimpleMeterRegistry();
+        carCountCache = new CarCountCache(hazelcastInstance, carTableVersion, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void testCountIsCachedUntilCarsChange() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.colour().setEquals("red");
+
+        assertThat(count(criteria)).isEqualTo(1);
+        assertThat(count(criteria)).isEqualTo(1);
+        assertThat(databaseCounts).hasValue(1);
+
+        version.incrementAndGet();
+
+        assertThat(count(criteria)).isEqualTo(2);
+        assertThat(databaseCounts).hasValue(2);
+    }
+
+    @Test
+    void testCountsAreCachedByCriteria() {
+        CarCriteria red = new CarCriteria();
+        red.colour().setEquals("red");
+        CarCriteria blue = new CarCriteria();
+        blue.colour().setEquals("blue");
+
+        count(red);
+        count(blue);
+
+        assertThat(databaseCounts).hasValue(2);
+    }
+
+    @Test
+    void testCountsAreNotMixedUpByTheirPrintedCriteria() {
+        CarCriteria colour = new CarCriteria();
+        colour.colour().setEquals("red, ], price=IntegerFilter [equals=1");
+        CarCriteria colourAndPrice = new CarCriteria();
+        colourAndPrice.colour().setEquals("red");
+        colourAndPrice.price().setEquals(1);
+        assertThat(colour).hasToString(colourAndPrice.toString());
+
+        count(colour);
+        count(colourAndPrice);
+
+        assertThat(databaseCounts).hasValue(2);
+    }
+
+    @Test
+    void testCachedCriteriaAreCopied() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.colour().setEquals("red");
+        count(criteria);
+
+        criteria.colour().setEquals("blue");
+        count(criteria);
+
+        assertThat(databaseCounts).hasValue(2);
+    }
+
+    @Test
+    void testHitRatioIsReported() {
+        CarCriteria criteria = new CarCriteria();
+
+        count(criteria);
+        count(criteria);
+        count(criteria);
+        count(criteria);
+
+        assertThat(meterRegistry.get("carapp.count.cache").tag("result", "hit").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("carapp.count.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("carapp.count.cache.hit.ratio").gauge().value()).isEqualTo(0.75);
+    }
+
+    private long count(CarCriteria criteria) {
+        return carCountCache.count(criteria, databaseCounts::incrementAndGet);
+    }
+}
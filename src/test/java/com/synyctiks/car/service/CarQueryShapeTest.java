@@ -0,0 +1,91 @@
+package com.synyctiks.car.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class CarQueryShapeTest {
+
+    @Test
+    void testShapeIgnoresValues() {
+        CarCriteria red = new CarCriteria();
+        red.colour().setEquals("red");
+        red.price().setGreaterThan(1000);
+        CarCriteria blue = new CarCriteria();
+        blue.colour().setEquals("blue");
+        blue.price().setGreaterThan(2000);
+
+        CarQueryShape shape = CarQueryShape.of("page", red, Sort.by("price"));
+
+        assertThat(shape).isEqualTo(CarQueryShape.of("page", blue, Sort.by("price")));
+        assertThat(shape).isNotEqualTo(CarQueryShape.of("count", blue, Sort.unsorted()));
+        assertThat(shape).hasToString("page colour.equals&price.greaterThan sort=price,asc");
+    }
+
+    @Test
+    void testRecommendCompositeIndexForCount() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.colour().setEquals("red");
+        criteria.price().setGreaterThanOrEqual(1000);
+
+        CarIndexRecommendation recommendation = CarQueryShape.of("count", criteria, Sort.unsorted()).recommendIndex().orElseThrow();
+
+        assertThat(recommendation.getColumns()).containsExactly("colour", "price");
+        assertThat(recommendation.getInclude()).isEmpty();
+        assertThat(recommendation.getChangeSet())
+            .contains("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_colour_price ON car (colour, price)</sql>");
+    }
+
+    @Test
+    void testRecommendCoveringIndexForPage() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.colour().setEquals("red");
+
+        CarIndexRecommendation recommendation = CarQueryShape
+            .of("page", criteria, Sort.by(Sort.Order.asc("price"), Sort.Order.desc("id")))
+            .recommendIndex()
+            .orElseThrow();
+
+        assertThat(recommendation.getColumns()).containsExactly("colour", "price", "id");
+        assertThat(recommendation.getDescending()).containsExactly("id");
+        assertThat(recommendation.getInclude()).containsExactly("name", "version");
+        assertThat(recommendation.getChangeSet()).contains("ON car (colour, price, id DESC) INCLUDE (name, version)");
+    }
+
+    @Test
+    void testNoRecommendationWhenServedByExistingIndex() {
+        CarCriteria byPrice = new CarCriteria();
+        byPrice.price().setLessThan(1000);
+        CarCriteria byId = new CarCriteria();
+        byId.id().setIn(List.of(1L, 2L));
+        CarCriteria byName = new CarCriteria();
+        byName.name().setContains("model");
+
+        assertThat(CarQueryShape.of("count", byPrice, Sort.unsorted()).recommendIndex()).isEmpty();
+        assertThat(CarQueryShape.of("page", byId, Sort.by("name")).recommendIndex()).isEmpty();
+        assertThat(CarQueryShape.of("count", byName, Sort.unsorted()).recommendIndex()).isEmpty();
+    }
+
+    @Test
+    void testStatisticsAreBounded() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().setShapeStatisticsSize(1);
+        CarQueryShapeStatistics statistics = new CarQueryShapeStatistics(applicationProperties);
+
+        statistics.record("count", null, Sort.unsorted(), 10);
+        statistics.record("count", null, Sort.unsorted(), 30);
+        statistics.record("page", null, Sort.by("id"), 5);
+
+        assertThat(statistics.getTop(10)).hasSize(2);
+        CarQueryShapeStatistics.Statistics top = statistics.getTop(1).get(0);
+        assertThat(top.getShape()).hasToString("count *");
+        assertThat(top.getCount()).isEqualTo(2);
+        assertThat(top.getTotalNanos()).isEqualTo(40);
+        assertThat(top.getMaxNanos()).isEqualTo(30);
+        assertThat(statistics.getTop(10).get(1).getShape()).isSameAs(CarQueryShape.OTHER);
+    }
+}
@@ -0,0 +1,120 @@
+package com.synyctiks.car.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CarQueryTemplateTest {
+
+    @Test
+    void testWithoutCriteria() {
+        CarQueryTemplate template = CarQueryTemplate.compile(new CarCriteria());
+
+        assertThat(CarQueryTemplate.keyOf(null)).isEmpty();
+        assertThat(template.getCondition()).isEmpty();
+        assertThat(template.isDistinct()).isFalse();
+        assertThat(template.bind(new CarCriteria())).isEmpty();
+    }
+
+    @Test
+    void testKeyIgnoresValuesAndOverriddenFilters() {
+        CarCriteria red = new CarCriteria();
+        red.colour().setEquals("red");
+        red.colour().setContains("ignored");
+        red.price().setGreaterThan(100);
+        CarCriteria blue = new CarCriteria();
+        blue.colour().setEquals("blue");
+        blue.price().setGreaterThan(200);
+        blue.setDistinct(true);
+
+        assertThat(CarQueryTemplate.keyOf(red)).isEqualTo("colour.equals&price.greaterThan");
+        assertThat(CarQueryTemplate.keyOf(blue)).isEqualTo("distinct colour.equals&price.greaterThan");
+    }
+
+    @Test
+    void testStringFilters() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.name().setContains("Model_S");
+        criteria.colour().setNotIn(List.of("red", "blue"));
+
+        CarQueryTemplate template = CarQueryTemplate.compile(criteria);
+
+        assertThat(template.getCondition()).isEqualTo("lower(c.name) like ?1 escape '\\' and c.colour not in (?2)");
+        assertThat(template.getSqlCondition()).isEqualTo("lower(c.name) like :p1 escape '\\' and c.colour not in (:p2)");
+        assertThat(template.bind(criteria)).containsExactly("%model\\_s%", List.of("red", "blue"));
+    }
+
+    @Test
+    void testRangeFilters() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.id().setIn(List.of(1L, 2L));
+        criteria.id().setGreaterThan(0L);
+        criteria.price().setSpecified(true);
+        criteria.price().setNotEquals(300);
+        criteria.price().setGreaterThanOrEqual(100);
+        criteria.price().setLessThan(500);
+
+        CarQueryTemplate template = CarQueryTemplate.compile(criteria);
+
+        assertThat(template.getCondition())
+            .isEqualTo("c.id in (?1) and c.price is not null and c.price <> ?2 and c.price >= ?3 and c.price < ?4");
+        assertThat(template.bind(criteria)).containsExactly(List.of(1L, 2L), 300, 100, 500);
+    }
+
+    @Test
+    void testSpecifiedIsPartOfTheKey() {
+        CarCriteria withPrice = new CarCriteria();
+        withPrice.price().setSpecified(true);
+        CarCriteria withoutPrice = new CarCriteria();
+        withoutPrice.price().setSpecified(false);
+
+        assertThat(CarQueryTemplate.keyOf(withPrice)).isNotEqualTo(CarQueryTemplate.keyOf(withoutPrice));
+        assertThat(CarQueryTemplate.compile(withoutPrice).getCondition()).isEqualTo("c.price is null");
+    }
+
+    @Test
+    void testEmptyListsHaveNoTemplate() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.id().setIn(List.of());
+
+        assertThat(CarQueryTemplate.keyOf(criteria)).isNull();
+        assertThat(CarQueryTemplate.compile(criteria)).isNull();
+    }
+
+    @Test
+    void testCacheEvictsLeastRecentlyUsedTemplates() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().setTemplateCacheSize(1);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CarQueryTemplateCache cache = new CarQueryTemplateCache(applicationProperties, meterRegistry);
+        CarCriteria red = new CarCriteria();
+        red.colour().setEquals("red");
+        CarCriteria blue = new CarCriteria();
+        blue.colour().setEquals("blue");
+        CarCriteria cheap = new CarCriteria();
+        cheap.price().setLessThan(100);
+
+        CarQueryTemplate template = cache.get(red).orElseThrow();
+        assertThat(cache.get(blue)).containsSame(template);
+        assertThat(cache.get(cheap)).isPresent();
+        assertThat(cache.get(red).orElseThrow()).isNotSameAs(template);
+
+        assertThat(meterRegistry.get("carapp.query.template.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("carapp.query.template.cache").tag("result", "miss").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("carapp.query.template.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testCacheDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQuery().setTemplateCacheSize(0);
+        CarQueryTemplateCache cache = new CarQueryTemplateCache(applicationProperties, new SimpleMeterRegistry());
+
+        assertThat(cache.get(new CarCriteria())).isEmpty();
+    }
+}
@@ -0,0 +1,41 @@
+package com.synyctiks.car.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.service.dto.CarDTO;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MappedListTest {
+
+    @Test
+    void testElementsAreMappedWhenRead() {
+        CarMapper carMapper = new CarMapperImpl();
+        AtomicInteger mapped = new AtomicInteger();
+        List<Car> cars = List.of(new Car().id(1L).name("A"), new Car().id(2L).name("B"));
+
+        List<CarDTO> carDTOs = MappedList.of(
+            cars,
+            car -> {
+                mapped.incrementAndGet();
+                return carMapper.toDto(car);
+            }
+        );
+
+        assertThat(mapped).hasValue(0);
+        assertThat(carDTOs).hasSize(2);
+        assertThat(carDTOs.get(1).getName()).isEqualTo("B");
+        assertThat(mapped).hasValue(1);
+        assertThat(carDTOs).extracting(CarDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testListWithoutRandomAccessIsRejected() {
+        assertThatThrownBy(() -> MappedList.of(new LinkedList<>(List.of(1)), String::valueOf))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
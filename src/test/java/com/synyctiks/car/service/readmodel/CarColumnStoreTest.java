@@ -0,0 +1,167 @@
+package com.synyctiks.car.service.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.synyctiks.car.service.CarFacetsAccumulator;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarDTO;
+import com.synyctiks.car.service.dto.CarFacetsDTO;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class CarColumnStoreTest {
+
+    private CarColumnStore store;
+
+    @BeforeEach
+    public void setup() {
+        store = new CarColumnStore();
+        store.upsert(1L, 0L, "Model S", "red", 100);
+        store.upsert(2L, 0L, "Model X", "blue", 300);
+        store.upsert(3L, 0L, "Golf", "red", null);
+        store.upsert(4L, 0L, "Polo", null, 200);
+    }
+
+    @Test
+    void testMatchAllWithoutCriteria() {
+        assertThat(ids(store.match(null), Sort.by("id"))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(CarColumnStore.count(store.match(new CarCriteria()))).isEqualTo(4);
+    }
+
+    @Test
+    void testStringFilters() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.name().setContains("model");
+        criteria.colour().setEquals("red");
+
+        assertThat(ids(store.match(criteria), Sort.by("id"))).containsExactly(1L);
+    }
+
+    @Test
+    void testValueFiltersExcludeNulls() {
+        CarCriteria notRed = new CarCriteria();
+        notRed.colour().setNotEquals("red");
+        CarCriteria cheap = new CarCriteria();
+        cheap.price().setLessThan(250);
+
+        assertThat(ids(store.match(notRed), Sort.by("id"))).containsExactly(2L);
+        assertThat(ids(store.match(cheap), Sort.by("id"))).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void testSpecifiedFilters() {
+        CarCriteria withoutPrice = new CarCriteria();
+        withoutPrice.price().setSpecified(false);
+        CarCriteria withColour = new CarCriteria();
+        withColour.colour().setSpecified(true);
+
+        assertThat(ids(store.match(withoutPrice), Sort.by("id"))).containsExactly(3L);
+        assertThat(ids(store.match(withColour), Sort.by("id"))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testSortByPriceWithNulls() {
+        assertThat(ids(store.match(null), Sort.by(Sort.Direction.ASC, "price"))).containsExactly(1L, 4L, 2L, 3L);
+        assertThat(ids(store.match(null), Sort.by(Sort.Direction.DESC, "price"))).containsExactly(3L, 2L, 4L, 1L);
+        assertThat(store.comparator(Sort.by("name"))).isNull();
+    }
+
+    @Test
+    void testPage() {
+        Comparator<Integer> byId = store.comparator(Sort.by("id"));
+
+        List<Long> secondPage = store
+            .page(store.match(null), byId, 2, 2)
+            .stream()
+            .map(row -> store.toDto(row).getId())
+            .collect(Collectors.toList());
+
+        assertThat(secondPage).containsExactly(3L, 4L);
+        assertThat(store.page(store.match(null), byId, 4, 2)).isEmpty();
+    }
+
+    @Test
+    void testUpsertAndDelete() {
+        store.upsert(2L, 1L, "Model X", "green", 350);
+        store.delete(1L);
+        CarCriteria green = new CarCriteria();
+        green.colour().setEquals("green");
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(ids(store.match(green), Sort.by("id"))).containsExactly(2L);
+        assertThat(ids(store.match(null), Sort.by("id"))).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void testOlderVersionIsIgnored() {
+        assertThat(store.upsert(2L, 2L, "Model X", "green", 350)).isTrue();
+        assertThat(store.upsert(2L, 1L, "Model X", "black", 320)).isFalse();
+        CarCriteria green = new CarCriteria();
+        green.colour().setEquals("green");
+
+        assertThat(ids(store.match(green), Sort.by("id"))).containsExactly(2L);
+        assertThat(store.toDto(store.page(store.match(green), store.comparator(Sort.by("id")), 0, 1).get(0)).getVersion())
+            .isEqualTo(2L);
+    }
+
+    @Test
+    void testDeletedCarIsNotStoredAgain() {
+        store.delete(1L);
+
+        assertThat(store.upsert(1L, 1L, "Model S", "red", 100)).isFalse();
+        assertThat(store.compact().upsert(1L, 1L, "Model S", "red", 100)).isFalse();
+        assertThat(ids(store.match(null), Sort.by("id"))).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void testCompact() {
+        for (long id = 10; id < 3000; id++) {
+            store.upsert(id, 0L, "Car " + id, "black", (int) id);
+        }
+        for (long id = 10; id < 3000; id++) {
+            store.delete(id);
+        }
+        assertThat(store.needsCompaction()).isTrue();
+
+        CarColumnStore compacted = store.compact();
+
+        assertThat(compacted.needsCompaction()).isFalse();
+        assertThat(compacted.size()).isEqualTo(4);
+        CarDTO car = compacted.toDto(compacted.page(compacted.match(null), compacted.comparator(Sort.by("id")), 2, 1).get(0));
+        assertThat(car.getName()).isEqualTo("Golf");
+        assertThat(car.getPrice()).isNull();
+    }
+
+    @Test
+    void testFacets() {
+        CarFacetsAccumulator accumulator = new CarFacetsAccumulator(List.of(150, 250));
+
+        store.addFacets(store.match(null), List.of(150, 250), accumulator);
+
+        CarFacetsDTO facets = accumulator.toDto();
+        assertThat(facets.getCount()).isEqualTo(4);
+        assertThat(facets.getWithoutPrice()).isEqualTo(1);
+        assertThat(facets.getMinPrice()).isEqualTo(100);
+        assertThat(facets.getMaxPrice()).isEqualTo(300);
+        assertThat(facets.getAveragePrice()).isEqualTo(200.0);
+        assertThat(facets.getColours())
+            .extracting(CarFacetsDTO.ColourCount::getColour, CarFacetsDTO.ColourCount::getCount)
+            .containsExactly(tuple("red", 2L), tuple("blue", 1L), tuple(null, 1L));
+        assertThat(facets.getPriceBuckets())
+            .extracting(CarFacetsDTO.PriceBucket::getFrom, CarFacetsDTO.PriceBucket::getTo, CarFacetsDTO.PriceBucket::getCount)
+            .containsExactly(tuple(null, 150, 1L), tuple(150, 250, 1L), tuple(250, null, 1L));
+    }
+
+    private List<Long> ids(long[] matches, Sort sort) {
+        return store
+            .page(matches, store.comparator(sort), 0, Integer.MAX_VALUE)
+            .stream()
+            .map(row -> store.toDto(row).getId())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.synyctiks.car.service.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.synyctiks.car.config.ApplicationProperties;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.CarChangedEvent;
+import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CarReadModelTest {
+
+    private CarRepository carRepository;
+
+    private TaskScheduler taskScheduler;
+
+    private CarReadModel carReadModel;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        carRepository = mock(CarRepository.class);
+        when(carRepository.streamAll(any(), anyInt())).thenAnswer(invocation -> Stream.of(car(1L, 0L, "red"), car(2L, 0L, "blue")));
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<long[]>getTopic(anyString())).thenReturn(mock(ITopic.class));
+        taskScheduler = mock(TaskScheduler.class);
+        ObjectProvider<TaskScheduler> taskSchedulerProvider = mock(ObjectProvider.class);
+        when(taskSchedulerProvider.getIfAvailable()).thenReturn(taskScheduler);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getReadModel().setEnabled(true);
+
+        carReadModel =
+            new CarReadModel(
+                carRepository,
+                hazelcastInstance,
+                applicationProperties,
+                mock(PlatformTransactionManager.class),
+                taskSchedulerProvider
+            );
+        carReadModel.warmUp();
+    }
+
+    @Test
+    void testListsCarsById() {
+        List<Long> ids = carReadModel
+            .findByCriteria(new CarCriteria(), Pageable.unpaged())
+            .orElseThrow()
+            .getContent()
+            .stream()
+            .map(CarDTO::getId)
+            .collect(Collectors.toList());
+
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testRefreshesChangedCars() {
+        when(carRepository.findAllById(any())).thenReturn(List.of(car(1L, 1L, "blue")));
+
+        carReadModel.onCarChanged(new CarChangedEvent(List.of(1L)));
+
+        assertThat(carReadModel.countByCriteria(blue())).hasValue(2);
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testVersionChangesWithEachRefresh() {
+        String loaded = carReadModel.getVersion(Pageable.unpaged()).orElseThrow();
+        assertThat(carReadModel.findByCriteria(new CarCriteria(), Pageable.unpaged()).orElseThrow().getVersion()).hasValue(loaded);
+        when(carRepository.findAllById(any())).thenReturn(List.of(car(1L, 1L, "blue")));
+
+        carReadModel.onCarChanged(new CarChangedEvent(List.of(1L)));
+
+        assertThat(carReadModel.getVersion(Pageable.unpaged())).isPresent().get().isNotEqualTo(loaded);
+    }
+
+    @Test
+    void testFailedRefreshLoadsAgain() {
+        when(carRepository.findAllById(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        carReadModel.onCarChanged(new CarChangedEvent(List.of(1L)));
+
+        assertThat(carReadModel.isWarm()).isFalse();
+        assertThat(carReadModel.countByCriteria(blue())).isEmpty();
+        assertThat(carReadModel.getVersion(Pageable.unpaged())).isEmpty();
+
+        ArgumentCaptor<Runnable> load = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(load.capture(), any(Instant.class));
+        when(carRepository.streamAll(any(), anyInt())).thenAnswer(invocation -> Stream.of(car(1L, 1L, "blue"), car(2L, 0L, "blue")));
+        load.getValue().run();
+
+        assertThat(carReadModel.isWarm()).isTrue();
+        assertThat(carReadModel.countByCriteria(blue())).hasValue(2);
+    }
+
+    private static CarCriteria blue() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.colour().setEquals("blue");
+        return criteria;
+    }
+
+    private static Car car(Long id, Long version, String colour) {
+        Car car = new Car().id(id).name("Car " + id).colour(colour).price(100);
+        car.setVersion(version);
+        return car;
+    }
+}
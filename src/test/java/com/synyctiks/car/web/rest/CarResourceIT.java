@@ -1,16 +1,30 @@
 package com.synyctiks.car.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.synyctiks.car.IntegrationTest;
+import com.synyctiks.car.config.ApplicationProperties;
 import com.synyctiks.car.domain.Car;
 import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.CarQueryShapeStatistics;
 import com.synyctiks.car.service.criteria.CarCriteria;
+import com.synyctiks.car.service.dto.CarCountDTO;
 import com.synyctiks.car.service.dto.CarDTO;
 import com.synyctiks.car.service.mapper.CarMapper;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -19,10 +33,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Integration tests for the {@link CarResource} REST controller.
@@ -42,6 +61,8 @@ class CarResourceIT {
     private static final Integer UPDATED_PRICE = 2;
     private static final Integer SMALLER_PRICE = 1 - 1;
 
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private static final String ENTITY_API_URL = "/api/cars";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -57,6 +78,18 @@ class CarResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CarQueryShapeStatistics carQueryShapeStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private MockMvc restCarMockMvc;
 
@@ -144,6 +177,252 @@ class CarResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE)));
     }
 
+    @Test
+    @Transactional
+    void getAllCarsAsSmile() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        byte[] content = restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        List<CarDTO> carDTOs = new ObjectMapper(new SmileFactory()).readValue(content, new TypeReference<List<CarDTO>>() {});
+        assertThat(carDTOs)
+            .anySatisfy(carDTO -> {
+                assertThat(carDTO.getId()).isEqualTo(car.getId());
+                assertThat(carDTO.getName()).isEqualTo(DEFAULT_NAME);
+                assertThat(carDTO.getColour()).isEqualTo(DEFAULT_COLOUR);
+            });
+    }
+
+    @Test
+    @Transactional
+    void createCarAsCbor() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+        byte[] content = restCarMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .content(cborMapper.writeValueAsBytes(carMapper.toDto(car)))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        CarDTO result = cborMapper.readValue(content, CarDTO.class);
+        assertThat(result.getId()).isNotNull();
+        assertThat(result.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsNotModified() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(content().string(""));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=id").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsWithJdbcEngine() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        Car other = createEntity(em);
+        other.setPrice(null);
+        carRepository.saveAndFlush(other);
+
+        applicationProperties.getQuery().setEngine(ApplicationProperties.Query.Engine.JDBC);
+        try {
+            restCarMockMvc
+                .perform(get(ENTITY_API_URL + "?id.in=" + car.getId() + "," + other.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(containsInAnyOrder(car.getId().intValue(), other.getId().intValue())))
+                .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+                .andExpect(jsonPath("$.[*].colour").value(hasItem(DEFAULT_COLOUR)))
+                .andExpect(jsonPath("$.[*].price").value(containsInAnyOrder(DEFAULT_PRICE, null)));
+        } finally {
+            applicationProperties.getQuery().setEngine(ApplicationProperties.Query.Engine.JPA);
+        }
+    }
+
+    @Test
+    @Transactional
+    void streamAllCars() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Stream the carList
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/stream?id.equals=" + car.getId()).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"id\":" + car.getId())))
+            .andExpect(content().string(containsString("\"name\":\"" + DEFAULT_NAME + "\"")))
+            .andExpect(content().string(endsWith("}\n")));
+    }
+
+    @Test
+    @Transactional
+    void getCarsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        Car cheapCar = carRepository.saveAndFlush(car);
+        Car expensiveCar = carRepository.saveAndFlush(createUpdatedEntity(em));
+        String filter = "orderBy=price&size=1&id.in=" + cheapCar.getId() + "," + expensiveCar.getId();
+
+        // Get the first page
+        MvcResult firstPage = restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/seek?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(cheapCar.getId().intValue())))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn();
+
+        // Get the next, and last, page
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/seek?" + filter + "&cursor=" + firstPage.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(expensiveCar.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @Transactional
+    void getCarsWithInvalidCursor() throws Exception {
+        restCarMockMvc.perform(get(ENTITY_API_URL + "/seek?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCarsPage() throws Exception {
+        // Initialize the database
+        Car cheapCar = carRepository.saveAndFlush(car);
+        Car expensiveCar = carRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the second page, by descending price
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?page=1&size=1&sort=price,desc&id.in=" + cheapCar.getId() + "," + expensiveCar.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(cheapCar.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void createCarsInBulk() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+        // A new Car, and one with an existing ID which cannot be created
+        CarDTO newCarDTO = carMapper.toDto(car);
+        CarDTO existingCarDTO = carMapper.toDto(createUpdatedEntity(em));
+        existingCarDTO.setId(1L);
+
+        restCarMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(newCarDTO, existingCarDTO)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400)))
+            .andExpect(jsonPath("$.[1].error").value("idexists"));
+
+        // Validate that only the new Car is in the database
+        List<Car> carList = carRepository.findAll();
+        assertThat(carList).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(carList).extracting(Car::getName).contains(DEFAULT_NAME).doesNotContain(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void createCarsInBulkFromNdjson() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+        String carsNdjson = new String(TestUtil.convertObjectToJsonBytes(carMapper.toDto(car))) + "\n";
+
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_NDJSON).content(carsNdjson + carsNdjson))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"index\":1,")))
+            .andExpect(content().string(endsWith("}\n")));
+
+        // Validate the Cars in the database
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    void updateCarsInBulk() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        CarDTO carDTO = carMapper.toDto(createUpdatedEntity(em));
+        carDTO.setId(car.getId());
+        CarDTO missingCarDTO = carMapper.toDto(createUpdatedEntity(em));
+        missingCarDTO.setId(count.incrementAndGet());
+
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(carDTO, missingCarDTO)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(200, 404)));
+
+        // Validate the Car in the database
+        Car testCar = carRepository.findById(car.getId()).orElseThrow();
+        assertThat(testCar.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void deleteCarsInBulk() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        int databaseSizeBeforeDelete = carRepository.findAll().size();
+
+        restCarMockMvc
+            .perform(
+                delete(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(car.getId(), count.incrementAndGet())))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(204, 404)));
+
+        // Validate the database contains one less item
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeDelete - 1);
+    }
+
     @Test
     @Transactional
     void getCar() throws Exception {
@@ -161,6 +440,74 @@ class CarResourceIT {
             .andExpect(jsonPath("$.price").value(DEFAULT_PRICE));
     }
 
+    @Test
+    @Transactional
+    void getCarNotModified() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getCarNotModifiedAsSmile() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0-smile\""));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0-cbor\""));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, "\"0-smile\""))
+            .andExpect(status().isNotModified());
+        // The JSON representation is not the Smile one
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0-smile\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsNotModifiedAsSmile() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, endsWith("-smile\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
     @Test
     @Transactional
     void getCarsByIdFiltering() throws Exception {
@@ -244,6 +591,30 @@ class CarResourceIT {
         defaultCarShouldBeFound("name.doesNotContain=" + UPDATED_NAME);
     }
 
+    @Test
+    @Transactional
+    void getAllCarsByNameContainsIgnoringCase() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get all the carList where name contains DEFAULT_NAME in lower case
+        defaultCarShouldBeFound("name.contains=" + DEFAULT_NAME.toLowerCase());
+
+        // Get all the carList where name does not contain DEFAULT_NAME in lower case
+        defaultCarShouldNotBeFound("name.doesNotContain=" + DEFAULT_NAME.toLowerCase());
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsByNameContainsWildcards() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get all the carList where name contains A%A or A_A literally, which DEFAULT_NAME does not
+        defaultCarShouldNotBeFound("name.contains=A%A");
+        defaultCarShouldNotBeFound("name.contains=A_A");
+    }
+
     @Test
     @Transactional
     void getAllCarsByColourIsEqualToSomething() throws Exception {
@@ -440,6 +811,151 @@ class CarResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllCarFields() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get the ids and names of all the cars whose id is car's id
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=id,name&id.equals=" + car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(car.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].colour").doesNotExist())
+            .andExpect(jsonPath("$.[0].price").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getCarFieldsPage() throws Exception {
+        // Initialize the database
+        Car cheapCar = carRepository.saveAndFlush(car);
+        Car expensiveCar = carRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the ids of the second page, by descending price
+        restCarMockMvc
+            .perform(
+                get(
+                    ENTITY_API_URL +
+                    "?fields=id&page=1&size=1&sort=price,desc&id.in=" +
+                    cheapCar.getId() +
+                    "," +
+                    expensiveCar.getId()
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(cheapCar.getId().intValue())))
+            .andExpect(jsonPath("$.[0].price").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllCarFieldsWithUnknownField() throws Exception {
+        restCarMockMvc.perform(get(ENTITY_API_URL + "?fields=id,owner")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void countCarsApproximately() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Too few cars for an estimate, they are counted
+        carQueryShapeStatistics.reset();
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/count?approximate=true&id.equals=" + car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.count").value(1))
+            .andExpect(jsonPath("$.exact").value(true))
+            .andExpect(jsonPath("$.errorBound").value(0));
+        assertThat(carQueryShapeStatistics.getTop(10))
+            .singleElement()
+            .satisfies(statistics -> {
+                assertThat(statistics.getShape().getOperation()).isEqualTo("approximateCount");
+                assertThat(statistics.getCount()).isEqualTo(1);
+            });
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/count?approximate=false&id.equals=" + car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1))
+            .andExpect(jsonPath("$.exact").value(true));
+    }
+
+    @Test
+    void countCarsApproximatelyFromSample() throws Exception {
+        // Initialize the database, committed and analyzed for the estimate of the rows of the table to be up to date
+        String name = "sampled-" + count.incrementAndGet();
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            cars.add(createEntity(em).name(i < 10 ? name : "not-" + name));
+        }
+        carRepository.saveAllAndFlush(cars);
+        analyzeCars();
+
+        applicationProperties.getApproximateCount().setExactThreshold(0);
+        applicationProperties.getApproximateCount().setSamplePercent(100);
+        try {
+            byte[] content = restCarMockMvc
+                .perform(get(ENTITY_API_URL + "/count?approximate=true&name.equals=" + name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exact").value(false))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+            CarCountDTO estimate = new ObjectMapper().readValue(content, CarCountDTO.class);
+            assertThat(estimate.getErrorBound()).isPositive();
+            assertThat(estimate.getCount()).isBetween(10 - estimate.getErrorBound(), 10 + estimate.getErrorBound());
+        } finally {
+            applicationProperties.getApproximateCount().setExactThreshold(new ApplicationProperties.ApproximateCount().getExactThreshold());
+            applicationProperties.getApproximateCount().setSamplePercent(new ApplicationProperties.ApproximateCount().getSamplePercent());
+            carRepository.deleteAllInBatch(cars);
+            analyzeCars();
+        }
+    }
+
+    private void analyzeCars() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.execute("ANALYZE car"));
+    }
+
+    @Test
+    @Transactional
+    void getCarFacets() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        carRepository.saveAndFlush(new Car().name(UPDATED_NAME).colour(DEFAULT_COLOUR));
+
+        // Get the facets of the cars named either DEFAULT_NAME or UPDATED_NAME, with a bucket up to and from UPDATED_PRICE
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/facets?name.in=" + DEFAULT_NAME + "," + UPDATED_NAME + "&priceBuckets=" + UPDATED_PRICE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.count").value(2))
+            .andExpect(jsonPath("$.withoutPrice").value(1))
+            .andExpect(jsonPath("$.minPrice").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.maxPrice").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.averagePrice").value(DEFAULT_PRICE.doubleValue()))
+            .andExpect(jsonPath("$.colours[0].colour").value(DEFAULT_COLOUR))
+            .andExpect(jsonPath("$.colours[0].count").value(2))
+            .andExpect(jsonPath("$.priceBuckets[0].to").value(UPDATED_PRICE))
+            .andExpect(jsonPath("$.priceBuckets[0].count").value(1))
+            .andExpect(jsonPath("$.priceBuckets[1].from").value(UPDATED_PRICE))
+            .andExpect(jsonPath("$.priceBuckets[1].count").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getCarFacetsWithInvalidPriceBuckets() throws Exception {
+        restCarMockMvc.perform(get(ENTITY_API_URL + "/facets?priceBuckets=10,5")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingCar() throws Exception {
@@ -479,6 +995,93 @@ class CarResourceIT {
         assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    @Transactional
+    void putExistingCarIfMatch() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        // Disconnect from session, which the update does not go through
+        em.detach(car);
+
+        CarDTO carDTO = carMapper.toDto(createUpdatedEntity(em));
+        carDTO.setId(car.getId());
+
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, carDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(carDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // The car is no longer at the version it was read
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, carDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(carMapper.toDto(car)))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        Car testCar = carRepository.findById(car.getId()).orElseThrow();
+        assertThat(testCar.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testCar.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void putExistingCarIfMatchAsSmile() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        // Disconnect from session, which the update does not go through
+        em.detach(car);
+
+        CarDTO carDTO = carMapper.toDto(createUpdatedEntity(em));
+        carDTO.setId(car.getId());
+
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, carDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0-smile\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(APPLICATION_SMILE)
+                    .content(TestUtil.convertObjectToJsonBytes(carDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1-smile\""));
+
+        assertThat(carRepository.findById(car.getId()).orElseThrow().getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void putNonExistingCarIfMatch() throws Exception {
+        car.setId(count.incrementAndGet());
+        CarDTO carDTO = carMapper.toDto(car);
+
+        // No version of a car which does not exist matches, not even any version
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, carDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(carDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, carDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(carDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void putNonExistingCar() throws Exception {
@@ -551,6 +1154,8 @@ class CarResourceIT {
         carRepository.saveAndFlush(car);
 
         int databaseSizeBeforeUpdate = carRepository.findAll().size();
+        // Clear the session, which the update does not go through
+        em.clear();
 
         // Update the car using partial update
         Car partialUpdatedCar = new Car();
@@ -582,6 +1187,8 @@ class CarResourceIT {
         carRepository.saveAndFlush(car);
 
         int databaseSizeBeforeUpdate = carRepository.findAll().size();
+        // Clear the session, which the update does not go through
+        em.clear();
 
         // Update the car using partial update
         Car partialUpdatedCar = new Car();
@@ -606,6 +1213,55 @@ class CarResourceIT {
         assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    @Transactional
+    void patchCarWithExplicitNull() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        // Disconnect from session, which the update does not go through
+        em.detach(car);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, car.getId())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + car.getId() + ",\"colour\":null,\"price\":" + UPDATED_PRICE + "}")
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.colour").value(nullValue()))
+            .andExpect(jsonPath("$.price").value(UPDATED_PRICE));
+
+        // Fields absent from the patch are left unchanged, fields set to null are cleared
+        Car testCar = carRepository.findById(car.getId()).orElseThrow();
+        assertThat(testCar.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testCar.getColour()).isNull();
+        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void patchCarWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        Car partialUpdatedCar = new Car();
+        partialUpdatedCar.setId(car.getId());
+        partialUpdatedCar.name(UPDATED_NAME);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCar.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCar))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(carRepository.findById(car.getId()).orElseThrow().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void patchNonExistingCar() throws Exception {
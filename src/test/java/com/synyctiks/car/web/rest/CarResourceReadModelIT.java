@@ -0,0 +1,119 @@
+package com.synyctiks.car.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.synyctiks.car.IntegrationTest;
+import com.synyctiks.car.domain.Car;
+import com.synyctiks.car.repository.CarRepository;
+import com.synyctiks.car.service.CarChangedEvent;
+import com.synyctiks.car.service.CarTableVersion;
+import com.synyctiks.car.service.readmodel.CarReadModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the lists of the {@link CarResource} REST controller answered by the {@link CarReadModel},
+ * with a change committed by another instance of the service, which increments the {@link CarTableVersion} before the
+ * read model of this one is refreshed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(properties = "application.read-model.enabled=true")
+class CarResourceReadModelIT {
+
+    private static final String ENTITY_API_URL = "/api/cars";
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarReadModel carReadModel;
+
+    @Autowired
+    private CarTableVersion carTableVersion;
+
+    @Autowired
+    private MockMvc restCarMockMvc;
+
+    private final List<Long> carIds = new ArrayList<>();
+
+    private String colour;
+
+    @BeforeEach
+    public void setup() throws InterruptedException {
+        for (int i = 0; i < 100 && !carReadModel.isWarm(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(carReadModel.isWarm()).isTrue();
+        colour = UUID.randomUUID().toString();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        carRepository.deleteAllById(carIds);
+        carReadModel.onCarChanged(new CarChangedEvent(carIds));
+    }
+
+    @Test
+    void getAllCarsIsTaggedWithTheReadModelVersion() throws Exception {
+        Car car = saveCarFromAnotherInstance();
+        carReadModel.onCarChanged(new CarChangedEvent(List.of(car.getId())));
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?colour.equals=" + colour))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"cars-" + carReadModel.getVersion(Pageable.unpaged()).orElseThrow() + "\""))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(car.getId().intValue())));
+    }
+
+    @Test
+    void getAllCarsIsModifiedOnceTheReadModelIsRefreshed() throws Exception {
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?colour.equals=" + colour))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Committed, and the table version incremented, but not yet refreshed from the topic: the list is still current
+        Car car = saveCarFromAnotherInstance();
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?colour.equals=" + colour).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        carReadModel.onCarChanged(new CarChangedEvent(List.of(car.getId())));
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?colour.equals=" + colour).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(car.getId().intValue())));
+    }
+
+    /**
+     * Save a car, and increment the table version as its instance would, without refreshing the read model.
+     */
+    private Car saveCarFromAnotherInstance() {
+        Car car = carRepository.save(new Car().name("Read").colour(colour).price(100));
+        carIds.add(car.getId());
+        carTableVersion.onCarChanged(new CarChangedEvent(List.of(car.getId())));
+        return car;
+    }
+}
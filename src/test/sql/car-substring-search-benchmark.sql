@@ -0,0 +1,51 @@
+-- Benchmark of the substring searches on car names and colours, with and without the trigram indexes.
+--
+-- Fills a copy of the car table with 1,000,000 rows, then times the queries CarQueryService sends for
+-- name.contains and colour.contains, first with sequential scans, then with the indexes of
+-- 20261017100002_added_index_Car_name_colour_trgm.xml. Run against the development database with:
+--
+--   docker-compose -f src/main/docker/postgresql.yml up -d
+--   psql -h localhost -U carapp -d carapp -v rows=1000000 -f src/test/sql/car-substring-search-benchmark.sql
+--
+-- Everything is done in a transaction that is rolled back, the car table is left untouched.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 1000000
+\endif
+\timing on
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TEMPORARY TABLE car_benchmark (LIKE car INCLUDING DEFAULTS) ON COMMIT DROP;
+
+INSERT INTO car_benchmark (id, name, colour, price)
+SELECT i,
+       'Model ' || md5(i::text),
+       (ARRAY['red', 'green', 'blue', 'black', 'white', 'silver', 'dark blue', 'light green'])[1 + i % 8],
+       1000 + (i * 7919) % 99000
+FROM generate_series(1, :rows) AS i;
+
+ANALYZE car_benchmark;
+
+\echo 'Sequential scans'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM car_benchmark WHERE lower(name) LIKE '%ab12%' ESCAPE '\' ORDER BY id DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM car_benchmark WHERE lower(name) LIKE '%ab12%' ESCAPE '\';
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM car_benchmark WHERE lower(colour) LIKE '%blue%' ESCAPE '\';
+
+CREATE INDEX ON car_benchmark USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX ON car_benchmark USING gin (lower(colour) gin_trgm_ops);
+ANALYZE car_benchmark;
+
+\echo 'Trigram indexes'
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM car_benchmark WHERE lower(name) LIKE '%ab12%' ESCAPE '\' ORDER BY id DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM car_benchmark WHERE lower(name) LIKE '%ab12%' ESCAPE '\';
+-- Few distinct colours, so a search matching a large share of the rows is still best served by a scan
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM car_benchmark WHERE lower(colour) LIKE '%blue%' ESCAPE '\';
+-- Patterns shorter than a trigram cannot use the indexes
+EXPLAIN (ANALYZE, BUFFERS) SELECT count(*) FROM car_benchmark WHERE lower(name) LIKE '%ab%' ESCAPE '\';
+
+ROLLBACK;